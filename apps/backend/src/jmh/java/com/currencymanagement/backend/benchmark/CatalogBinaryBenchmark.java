@@ -0,0 +1,78 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.service.CurrencyBinaryDecoder;
+import com.currencymanagement.backend.service.CurrencyBinaryEncoder;
+import com.currencymanagement.backend.service.CurrencySnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding the whole catalog as JSON versus the {@value CurrencyBinaryEncoder#MEDIA_TYPE}
+ * format, with and without metadata. Run with {@code -prof gc}: binary encoding should allocate
+ * nothing per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogBinaryBenchmark {
+    
+    @Param({"11", "200"})
+    private int catalogSize;
+    
+    private ObjectMapper objectMapper;
+    private List<Currency> catalog;
+    private CurrencySnapshot snapshot;
+    private CurrencyBinaryEncoder encoder;
+    private byte[] json;
+    private byte[] binary;
+    
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        catalog = Fixtures.currencies(catalogSize);
+        snapshot = new CurrencySnapshot(1, catalog);
+        encoder = new CurrencyBinaryEncoder();
+        json = objectMapper.writeValueAsBytes(catalog);
+        ByteBuffer encoded = encoder.encode(snapshot, false);
+        binary = new byte[encoded.remaining()];
+        encoded.get(binary);
+    }
+    
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+    
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        return encoder.encode(snapshot, false);
+    }
+    
+    @Benchmark
+    public ByteBuffer binaryEncodeWithMetadata() {
+        return encoder.encode(snapshot, true);
+    }
+    
+    @Benchmark
+    public Currency[] jsonDecode() throws IOException {
+        return objectMapper.readValue(json, Currency[].class);
+    }
+    
+    @Benchmark
+    public CurrencyBinaryDecoder.Catalog binaryDecode() {
+        return CurrencyBinaryDecoder.decode(ByteBuffer.wrap(binary));
+    }
+}
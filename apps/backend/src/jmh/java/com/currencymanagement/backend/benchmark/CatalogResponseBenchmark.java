@@ -0,0 +1,82 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.service.CatalogResponseCache;
+import com.currencymanagement.backend.service.CurrencySnapshot;
+import com.currencymanagement.backend.service.CurrencySnapshotCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per-request cost of the {@code GET /api/currencies} body: serializing the catalog on every request,
+ * serializing and gzipping it (as the edge proxy did), and sending the bytes kept by
+ * {@link CatalogResponseCache}. Run with {@code -prof gc} to compare allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogResponseBenchmark {
+    
+    @Param({"11", "200"})
+    private int catalogSize;
+    
+    private ObjectMapper objectMapper;
+    private List<Currency> catalog;
+    private CatalogResponseCache responseCache;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        catalog = Fixtures.currencies(catalogSize);
+        CurrencySnapshot snapshot = new CurrencySnapshot(1, catalog);
+        
+        responseCache = new CatalogResponseCache();
+        ReflectionTestUtils.setField(responseCache, "snapshotCache", new CurrencySnapshotCache() {
+            @Override
+            public CurrencySnapshot get() {
+                return snapshot;
+            }
+        });
+        ReflectionTestUtils.setField(responseCache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(responseCache, "enabled", true);
+        ReflectionTestUtils.setField(responseCache, "minCompressBytes", 1024);
+        ReflectionTestUtils.setField(responseCache, "gzipLevel", 9);
+        ReflectionTestUtils.setField(responseCache, "brotliQuality", 9);
+        ReflectionTestUtils.invokeMethod(responseCache, "loadBrotli");
+    }
+    
+    @Benchmark
+    public byte[] serializePerRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+    
+    @Benchmark
+    public byte[] serializeAndGzipPerRequest() throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(catalog);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+    
+    @Benchmark
+    public byte[] preEncoded() {
+        CatalogResponseCache.EncodedBody body = responseCache.current().all();
+        return body.gzip() != null ? body.gzip() : body.identity();
+    }
+}
@@ -0,0 +1,48 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.entity.Currency;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link Currency}, configured like Spring Boot's default ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyJsonBenchmark {
+    
+    @Param({"11", "200"})
+    private int catalogSize;
+    
+    private ObjectMapper objectMapper;
+    private Currency currency;
+    private List<Currency> catalog;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        catalog = Fixtures.currencies(catalogSize);
+        currency = catalog.get(1);
+    }
+    
+    @Benchmark
+    public byte[] singleCurrency() throws Exception {
+        return objectMapper.writeValueAsBytes(currency);
+    }
+    
+    @Benchmark
+    public byte[] catalog() throws Exception {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+}
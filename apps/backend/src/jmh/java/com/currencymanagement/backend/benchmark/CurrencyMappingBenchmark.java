@@ -0,0 +1,64 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.controller.CurrencyController;
+import com.currencymanagement.backend.dto.CreateCurrencyRequest;
+import com.currencymanagement.backend.dto.UpdateCurrencyRequest;
+import com.currencymanagement.backend.entity.Currency;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The request-to-entity mapping done by {@code CurrencyController.convertToEntity}.
+ * The helpers are private, so they are reached through constant method handles the JIT can inline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyMappingBenchmark {
+    
+    private static final MethodHandle CONVERT_CREATE;
+    private static final MethodHandle CONVERT_UPDATE;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(CurrencyController.class, MethodHandles.lookup());
+            CONVERT_CREATE = lookup.findVirtual(CurrencyController.class, "convertToEntity",
+                MethodType.methodType(Currency.class, CreateCurrencyRequest.class));
+            CONVERT_UPDATE = lookup.findVirtual(CurrencyController.class, "convertToEntity",
+                MethodType.methodType(Currency.class, UpdateCurrencyRequest.class, Currency.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private CurrencyController controller;
+    private CreateCurrencyRequest createRequest;
+    private UpdateCurrencyRequest updateRequest;
+    private Currency existing;
+    
+    @Setup
+    public void setUp() {
+        controller = new CurrencyController();
+        createRequest = new CreateCurrencyRequest("sgd", "Singapore Dollar", "S$", new BigDecimal("1.3500"));
+        updateRequest = new UpdateCurrencyRequest("eur", "Euro", "€", new BigDecimal("0.9100"));
+        existing = Fixtures.currencies(2).get(1);
+    }
+    
+    @Benchmark
+    public Currency fromCreateRequest() throws Throwable {
+        return (Currency) CONVERT_CREATE.invokeExact(controller, createRequest);
+    }
+    
+    @Benchmark
+    public Currency fromUpdateRequest() throws Throwable {
+        return (Currency) CONVERT_UPDATE.invokeExact(controller, updateRequest, existing);
+    }
+}
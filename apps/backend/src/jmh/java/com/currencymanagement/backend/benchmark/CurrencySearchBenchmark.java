@@ -0,0 +1,86 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.service.CurrencySearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete over thousands of instruments: {@link CurrencySearchIndex} against folding and
+ * scanning every name per query, as a client-side filter or {@code LIKE '%q%'} would. Names mix
+ * English and accented Vietnamese words; queries cover a one-letter prefix, a word prefix, two
+ * words, a substring and a code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencySearchBenchmark {
+    
+    private static final String[] WORDS = {
+        "Đồng", "Việt", "Nam", "Vàng", "Bạc", "Dollar", "Token", "Coin", "Bitcoin", "Ether", "Classic",
+        "Cash", "Gold", "Silver", "Platinum", "Network", "Chain", "Finance", "Protocol", "Digital",
+        "Franc", "Peso", "Rupee", "Dinar", "Krone", "Lira", "Shilling", "Rand", "Real", "Yuan"
+    };
+    private static final String CODE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    
+    @Param({"1000", "10000"})
+    private int catalogSize;
+    
+    private List<Currency> catalog;
+    private CurrencySearchIndex index;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            int packed = i * 7919 % (36 * 36 * 36);
+            String code = "" + CODE_CHARS.charAt(packed / 1296) + CODE_CHARS.charAt(packed / 36 % 36) + CODE_CHARS.charAt(packed % 36);
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + (random.nextBoolean() ? " " + WORDS[random.nextInt(WORDS.length)] : "");
+            Currency currency = new Currency(code, name, code, BigDecimal.ONE);
+            currency.setId((long) i + 1);
+            catalog.add(currency);
+        }
+        index = new CurrencySearchIndex(catalog);
+    }
+    
+    @Benchmark
+    public List<Currency> indexed(Query query) {
+        return index.search(query.text, 10);
+    }
+    
+    @Benchmark
+    public List<Currency> scanAll(Query query) {
+        String folded = CurrencySearchIndex.fold(query.text);
+        List<Currency> results = new ArrayList<>();
+        for (Currency currency : catalog) {
+            if (CurrencySearchIndex.fold(currency.getName()).contains(folded)
+                    || CurrencySearchIndex.fold(currency.getCode()).contains(folded)) {
+                results.add(currency);
+            }
+        }
+        return results.subList(0, Math.min(10, results.size()));
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CurrencySearchIndex build() {
+        return new CurrencySearchIndex(catalog);
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Query {
+        
+        @Param({"d", "dol", "viet nam", "ain", "B7Q"})
+        private String text;
+    }
+}
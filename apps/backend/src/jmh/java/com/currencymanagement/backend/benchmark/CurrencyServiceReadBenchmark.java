@@ -0,0 +1,87 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.CurrencyManagementApplication;
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.service.CurrencyService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link CurrencyService} reads against an embedded PostgreSQL seeded from data.sql,
+ * with the in-memory snapshot cache switched on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyServiceReadBenchmark {
+    
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+    
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private CurrencyService currencyService;
+    private Pageable firstPage;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE currency_db");
+        }
+        
+        context = new SpringApplicationBuilder(CurrencyManagementApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "currency_db"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--currency.cache.enabled=" + cacheEnabled
+            );
+        currencyService = context.getBean(CurrencyService.class);
+        firstPage = PageRequest.of(0, 10, Sort.by("code", "id"));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+    
+    @Benchmark
+    public List<Currency> getAllCurrencies() {
+        return currencyService.getAllCurrencies();
+    }
+    
+    @Benchmark
+    public Optional<Currency> getCurrencyByCode() {
+        return currencyService.getCurrencyByCode("EUR");
+    }
+    
+    @Benchmark
+    public Page<Currency> getCurrenciesPaged() {
+        return currencyService.getAllCurrencies(firstPage);
+    }
+}
@@ -0,0 +1,54 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.entity.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample data shared by the benchmarks, shaped like the rows seeded by data.sql.
+ */
+final class Fixtures {
+    
+    private static final String[][] SEED = {
+        {"USD", "United States Dollar", "$", "1.0000"},
+        {"EUR", "Euro", "€", "0.9200"},
+        {"JPY", "Japanese Yen", "¥", "110.0000"},
+        {"GBP", "British Pound", "£", "0.7800"},
+        {"AUD", "Australian Dollar", "A$", "1.3500"},
+        {"CAD", "Canadian Dollar", "C$", "1.3000"},
+        {"CHF", "Swiss Franc", "CHF", "0.8900"},
+        {"CNY", "Chinese Yuan", "¥", "7.1200"},
+        {"KRW", "South Korean Won", "₩", "1320.0000"},
+        {"INR", "Indian Rupee", "₹", "83.1000"},
+        {"VND", "Vietnamese Dong", "₫", "24500.0000"}
+    };
+    
+    private Fixtures() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Returns {@code count} currencies: the seed rows first, then synthetic ones.
+     */
+    static List<Currency> currencies(int count) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 10, 30);
+        List<Currency> currencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Currency currency;
+            if (i < SEED.length) {
+                currency = new Currency(SEED[i][0], SEED[i][1], SEED[i][2], new BigDecimal(SEED[i][3]));
+            } else {
+                String code = "X" + (char) ('A' + (i / 26) % 26) + (char) ('A' + i % 26);
+                currency = new Currency(code, "Synthetic " + code, code, BigDecimal.valueOf(1000 + i * 37L, 4));
+            }
+            currency.setId((long) i + 1);
+            currency.setCreatedAt(now);
+            currency.setUpdatedAt(now);
+            currencies.add(currency);
+        }
+        return currencies;
+    }
+}
@@ -0,0 +1,43 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.dto.PagedResponse;
+import com.currencymanagement.backend.entity.Currency;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the {@link PagedResponse} that /api/currencies/paged returns from a Spring Data page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedResponseBenchmark {
+    
+    private Page<Currency> page;
+    
+    @Setup
+    public void setUp() {
+        List<Currency> content = Fixtures.currencies(10);
+        page = new PageImpl<>(content, PageRequest.of(0, 10, Sort.by("code")), 1000);
+    }
+    
+    @Benchmark
+    public PagedResponse<Currency> fromPage() {
+        return new PagedResponse<>(
+            page.getContent(),
+            page.getNumber(),
+            page.getSize(),
+            page.getTotalElements(),
+            page.getTotalPages()
+        );
+    }
+}
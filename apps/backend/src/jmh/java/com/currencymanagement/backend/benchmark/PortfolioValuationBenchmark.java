@@ -0,0 +1,105 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.service.HoldingsReader;
+import com.currencymanagement.backend.service.PortfolioValuation;
+import com.currencymanagement.backend.service.RateTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stages of {@code POST /api/valuations} for 10k, 100k and 1M holdings spread over 200 currencies:
+ * reading the body into arrays, valuing on the caller alone and in parallel chunks, and writing the
+ * response line by line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioValuationBenchmark {
+    
+    private static final int CHUNK_SIZE = 10_000;
+    
+    @Param({"10000", "100000", "1000000"})
+    private int holdings;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RateTable rates;
+    private int target;
+    private byte[] body;
+    private HoldingsReader.Holdings parsed;
+    private PortfolioValuation valuation;
+    private ExecutorService executor;
+    
+    @Setup
+    public void setUp() throws IOException {
+        rates = new RateTable(Fixtures.currencies(200));
+        target = rates.indexOf("USD");
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder(holdings * 40).append("{\"target\":\"USD\",\"holdings\":[");
+        for (int i = 0; i < holdings; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"code\":\"").append(rates.codeAt(random.nextInt(rates.size())))
+                .append("\",\"amount\":").append(random.nextInt(10_000_000)).append('.').append(random.nextInt(100))
+                .append('}');
+        }
+        body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        parsed = read();
+        executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        valuation = PortfolioValuation.value(parsed, rates, target, 1, CHUNK_SIZE, null);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    public HoldingsReader.Holdings read() throws IOException {
+        return HoldingsReader.read(objectMapper.getFactory().createParser(body), rates, Integer.MAX_VALUE);
+    }
+    
+    @Benchmark
+    public PortfolioValuation valueOnCaller() {
+        return PortfolioValuation.value(parsed, rates, target, 1, CHUNK_SIZE, null);
+    }
+    
+    @Benchmark
+    public PortfolioValuation valueInParallelChunks() {
+        return PortfolioValuation.value(parsed, rates, target, 1, CHUNK_SIZE, executor);
+    }
+    
+    @Benchmark
+    public long writeStreamed() throws IOException {
+        CountingStream out = new CountingStream();
+        valuation.writeTo(out, objectMapper.getFactory());
+        return out.bytes;
+    }
+    
+    /**
+     * Discards what is written, like a fast client, so only the encoding is measured.
+     */
+    private static final class CountingStream extends OutputStream {
+        
+        private long bytes;
+        
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
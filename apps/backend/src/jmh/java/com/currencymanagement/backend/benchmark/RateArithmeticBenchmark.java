@@ -0,0 +1,60 @@
+package com.currencymanagement.backend.benchmark;
+
+import com.currencymanagement.backend.service.RateTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-rate conversion with a BigDecimal chain versus the fixed-point {@link RateTable} kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateArithmeticBenchmark {
+    
+    private BigDecimal amount;
+    private BigDecimal rateFrom;
+    private BigDecimal rateTo;
+    
+    private RateTable rateTable;
+    private long unscaledAmount;
+    private int from;
+    private int to;
+    
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal("1234.5678");
+        rateTable = new RateTable(Fixtures.currencies(11));
+        from = rateTable.indexOf("EUR");
+        to = rateTable.indexOf("VND");
+        rateFrom = BigDecimal.valueOf(rateTable.rateAt(from), RateTable.RATE_SCALE);
+        rateTo = BigDecimal.valueOf(rateTable.rateAt(to), RateTable.RATE_SCALE);
+        unscaledAmount = amount.unscaledValue().longValueExact();
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimalConvert() {
+        return amount.multiply(rateTo).divide(rateFrom, RateTable.AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+    }
+    
+    @Benchmark
+    public BigDecimal bigDecimalCrossRate() {
+        return rateTo.divide(rateFrom, RateTable.CROSS_RATE_SCALE, RoundingMode.HALF_EVEN);
+    }
+    
+    @Benchmark
+    public long fixedPointConvert() {
+        return rateTable.convert(unscaledAmount, from, to);
+    }
+    
+    @Benchmark
+    public long fixedPointCrossRate() {
+        return rateTable.crossRate(from, to);
+    }
+}
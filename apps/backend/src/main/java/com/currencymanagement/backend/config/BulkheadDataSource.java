@@ -0,0 +1,161 @@
+package com.currencymanagement.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead in front of a connection pool: at most {@code permits} connections are out at once,
+ * at most {@code maxWaiting} callers queue for one, and a caller gives up after {@code timeoutMillis}.
+ * <p>
+ * With virtual threads the number of request threads is no longer a limit, so without this every
+ * request of a burst would queue inside the pool until its connection timeout. Here the queue is
+ * bounded and FIFO; callers beyond it are rejected straight away and the request answered with
+ * {@code 503}, which keeps the latency of admitted requests close to the pool's service time.
+ * Waiting parks the thread on a {@link Semaphore}, which does not pin a virtual thread to its carrier.
+ * <p>
+ * A permit is released when the connection is closed, i.e. returned to the pool.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final String name;
+    private final int permits;
+    private final int maxWaiting;
+    private final long timeoutMillis;
+    private final Semaphore semaphore;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public BulkheadDataSource(String name, DataSource target, int permits, int maxWaiting, long timeoutMillis) {
+        super(target);
+        this.name = name;
+        this.permits = permits;
+        this.maxWaiting = maxWaiting;
+        this.timeoutMillis = timeoutMillis;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection(username, password));
+    }
+
+    private void acquire() throws SQLException {
+        // Only takes a free permit when nobody is queued, so newcomers cannot overtake waiting callers
+        if (!semaphore.hasQueuedThreads() && semaphore.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new SQLTransientConnectionException(
+                "Database bulkhead " + name + " is full: " + permits + " connections in use, " + maxWaiting + " waiting");
+        }
+        try {
+            if (!semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timedOut.increment();
+                throw new SQLTransientConnectionException(
+                    "Database bulkhead " + name + ": no connection within " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private Connection guard(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException | Error e) {
+            semaphore.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(BulkheadDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new ReleasingHandler(connection));
+    }
+
+    public int getActiveCount() {
+        return permits - semaphore.availablePermits();
+    }
+
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Forwards every call to the pooled connection and gives the permit back on the first {@code close()}.
+     */
+    private final class ReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Bulkhead[" + name + "] " + target;
+                }
+                default -> {
+                    // Falls through to the pooled connection below
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+}
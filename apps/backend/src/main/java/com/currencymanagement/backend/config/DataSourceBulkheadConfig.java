@@ -0,0 +1,89 @@
+package com.currencymanagement.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Puts a {@link BulkheadDataSource} in front of every Hikari pool, primary and replica alike,
+ * with as many permits as the pool has connections.
+ * <p>
+ * Requests that cannot get a connection, because the bulkhead is full or the wait timed out,
+ * are answered with {@code 503} and {@code Retry-After} instead of {@code 500}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "currency.datasource.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceBulkheadConfig {
+
+    // Static: post-processors are created before the other beans of this class
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+        int maxWaiting = environment.getProperty("currency.datasource.bulkhead.max-waiting", Integer.class, 200);
+        long timeoutMillis = environment.getProperty("currency.datasource.bulkhead.timeout-ms", Long.class, 2000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Pool settings have been bound by now
+                if (bean instanceof HikariDataSource pool) {
+                    return new BulkheadDataSource(beanName, pool, pool.getMaximumPoolSize(), maxWaiting, timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceBulkheadMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                Gauge.builder("currency.datasource.bulkhead.active", bulkhead, BulkheadDataSource::getActiveCount)
+                        .tag("pool", name)
+                        .description("Connections handed out through the bulkhead")
+                        .register(registry);
+                Gauge.builder("currency.datasource.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaitingCount)
+                        .tag("pool", name)
+                        .description("Callers queued for a connection")
+                        .register(registry);
+                FunctionCounter.builder("currency.datasource.bulkhead.rejections", bulkhead, BulkheadDataSource::getRejectedCount)
+                        .tag("pool", name)
+                        .tag("reason", "full")
+                        .description("Connection requests refused by the bulkhead")
+                        .register(registry);
+                FunctionCounter.builder("currency.datasource.bulkhead.rejections", bulkhead, BulkheadDataSource::getTimedOutCount)
+                        .tag("pool", name)
+                        .tag("reason", "timeout")
+                        .description("Connection requests refused by the bulkhead")
+                        .register(registry);
+            }
+        });
+    }
+
+    @RestControllerAdvice
+    static class ConnectionUnavailableHandler {
+
+        // CannotGetJdbcConnectionException: a refused connection in JdbcTemplate calls outside a transaction
+        @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class,
+            TransientDataAccessResourceException.class, QueryTimeoutException.class})
+        public ResponseEntity<Void> connectionUnavailable() {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.currencymanagement.backend.config;
+
+import com.currencymanagement.backend.service.ReplicaLagGuard;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Splits database traffic between the primary and a read replica, active only when
+ * {@code currency.datasource.replica.url} is set.
+ * <p>
+ * Each side gets its own Hikari pool ({@code spring.datasource.hikari.*} for the primary,
+ * {@code currency.datasource.replica.hikari.*} for the replica), so read load cannot take
+ * connections away from rate publishing. Pool metrics are reported per pool name by Actuator.
+ */
+@Configuration
+@ConditionalOnProperty(name = "currency.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("currency.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${currency.datasource.replica.url}") String url,
+                                              @Value("${currency.datasource.replica.username:}") String username,
+                                              @Value("${currency.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        // Credentials default to the primary's
+        dataSource.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+        dataSource.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica,
+                                                             ReplicaLagGuard lagGuard) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagGuard);
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.Target.PRIMARY, primary,
+            ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public MeterBinder dataSourceRoutingMetrics(ReplicaRoutingDataSource routing, ReplicaLagGuard lagGuard) {
+        return registry -> {
+            FunctionCounter.builder("currency.datasource.routes", routing, ReplicaRoutingDataSource::getPrimaryRouteCount)
+                    .tag("pool", "primary")
+                    .description("Connections handed out per pool")
+                    .register(registry);
+            FunctionCounter.builder("currency.datasource.routes", routing, ReplicaRoutingDataSource::getReplicaRouteCount)
+                    .tag("pool", "replica")
+                    .description("Connections handed out per pool")
+                    .register(registry);
+            FunctionCounter.builder("currency.datasource.lag.fallbacks", routing, ReplicaRoutingDataSource::getLagFallbackCount)
+                    .description("Read-only transactions sent to the primary because the replica was behind")
+                    .register(registry);
+            Gauge.builder("currency.datasource.replica.lag", lagGuard, ReplicaLagGuard::getLagBytes)
+                    .baseUnit("bytes")
+                    .description("WAL the replica still has to replay")
+                    .register(registry);
+        };
+    }
+}
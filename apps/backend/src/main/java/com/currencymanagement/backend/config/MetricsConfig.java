@@ -0,0 +1,208 @@
+package com.currencymanagement.backend.config;
+
+import com.currencymanagement.backend.service.CatalogResponseCache;
+import com.currencymanagement.backend.service.CatalogWarmup;
+import com.currencymanagement.backend.service.CurrencyCandleService;
+import com.currencymanagement.backend.service.CurrencyChangeBroadcaster;
+import com.currencymanagement.backend.service.CurrencyClusterNotifier;
+import com.currencymanagement.backend.service.CurrencyImportService;
+import com.currencymanagement.backend.service.CurrencySearchService;
+import com.currencymanagement.backend.service.CurrencyService;
+import com.currencymanagement.backend.service.CurrencySnapshotCache;
+import com.currencymanagement.backend.service.PortfolioValuationService;
+import com.currencymanagement.backend.service.RateTickIngestionService;
+import com.currencymanagement.backend.service.SingleFlight;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on service and repository classes
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder currencyCacheMetrics(CurrencySnapshotCache snapshotCache) {
+        return registry -> {
+            // Hit ratio: rate(currency_cache_requests_total{result="hit"}) / rate(currency_cache_requests_total)
+            FunctionCounter.builder("currency.cache.requests", snapshotCache, CurrencySnapshotCache::getHitCount)
+                    .tag("result", "hit")
+                    .description("Snapshot cache reads served from memory")
+                    .register(registry);
+            FunctionCounter.builder("currency.cache.requests", snapshotCache, CurrencySnapshotCache::getMissCount)
+                    .tag("result", "miss")
+                    .description("Snapshot cache reads that had to load the snapshot")
+                    .register(registry);
+            FunctionCounter.builder("currency.cache.rebuilds", snapshotCache, CurrencySnapshotCache::getRebuildCount)
+                    .description("Snapshot rebuilds from the database")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder singleFlightMetrics(CurrencyService currencyService) {
+        return registry -> {
+            bindSingleFlight(registry, "findByCode", currencyService.getFindByCodeFlight());
+            bindSingleFlight(registry, "existsByCode", currencyService.getExistsByCodeFlight());
+        };
+    }
+
+    // Collapse ratio: rate(currency_singleflight_calls_total{result="collapsed"}) / rate(currency_singleflight_calls_total)
+    private static void bindSingleFlight(MeterRegistry registry, String lookup, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("currency.singleflight.calls", flight, SingleFlight::getExecutionCount)
+                .tag("lookup", lookup)
+                .tag("result", "executed")
+                .description("Database lookups run because none was in flight for the key")
+                .register(registry);
+        FunctionCounter.builder("currency.singleflight.calls", flight, SingleFlight::getCollapsedCount)
+                .tag("lookup", lookup)
+                .tag("result", "collapsed")
+                .description("Lookups that shared the result of one already in flight")
+                .register(registry);
+        FunctionCounter.builder("currency.singleflight.timeouts", flight, SingleFlight::getTimeoutCount)
+                .tag("lookup", lookup)
+                .description("Callers that gave up waiting for a shared lookup")
+                .register(registry);
+        Gauge.builder("currency.singleflight.inflight", flight, SingleFlight::getInFlightCount)
+                .tag("lookup", lookup)
+                .description("Keys with a database lookup in flight")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder currencyStreamMetrics(CurrencyChangeBroadcaster changeBroadcaster) {
+        return registry -> {
+            Gauge.builder("currency.stream.subscribers", changeBroadcaster,
+                            CurrencyChangeBroadcaster::getSubscriberCount)
+                    .description("Open Server-Sent Events subscriptions")
+                    .register(registry);
+            FunctionCounter.builder("currency.stream.stalled", changeBroadcaster,
+                            CurrencyChangeBroadcaster::getStalledCount)
+                    .description("Subscribers dropped because a send stayed blocked past the send timeout")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateTickMetrics(RateTickIngestionService ingestionService) {
+        // Flush latency is recorded by the service itself as currency.ticks.flush
+        return registry -> {
+            Gauge.builder("currency.ticks.pending", ingestionService, RateTickIngestionService::getPendingCount)
+                    .description("Coalesced rates waiting to be written")
+                    .register(registry);
+            FunctionCounter.builder("currency.ticks.received", ingestionService, RateTickIngestionService::getReceivedCount)
+                    .description("Rate ticks submitted")
+                    .register(registry);
+            FunctionCounter.builder("currency.ticks.coalesced", ingestionService, RateTickIngestionService::getCoalescedCount)
+                    .description("Rate ticks replaced by a newer tick before being written")
+                    .register(registry);
+            FunctionCounter.builder("currency.ticks.rejected", ingestionService, RateTickIngestionService::getRejectedCount)
+                    .description("Rate ticks rejected by validation or a full queue")
+                    .register(registry);
+            FunctionCounter.builder("currency.ticks.flushed", ingestionService, RateTickIngestionService::getFlushedRowCount)
+                    .description("Currency rows updated by tick flushes")
+                    .register(registry);
+            FunctionCounter.builder("currency.ticks.flush.failures", ingestionService, RateTickIngestionService::getFlushFailureCount)
+                    .description("Tick flushes that failed and were retried")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder currencyCandleMetrics(CurrencyCandleService candleService) {
+        return registry -> {
+            Gauge.builder("currency.candles.memory", candleService, CurrencyCandleService::getMemoryCandleCount)
+                    .description("Candles held in memory across currencies and intervals")
+                    .register(registry);
+            FunctionCounter.builder("currency.candles.ticks", candleService, CurrencyCandleService::getRecordedTickCount)
+                    .description("Rate changes applied to candles")
+                    .register(registry);
+            FunctionCounter.builder("currency.candles.persisted", candleService, CurrencyCandleService::getPersistedCandleCount)
+                    .description("Candles written to currency_candles")
+                    .register(registry);
+            FunctionCounter.builder("currency.candles.persist.failures", candleService, CurrencyCandleService::getPersistFailureCount)
+                    .description("Candle writes that failed and were retried")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder catalogResponseCacheMetrics(CatalogResponseCache responseCache) {
+        return registry -> FunctionCounter.builder("currency.response.encodings", responseCache, CatalogResponseCache::getEncodedBodyCount)
+                .description("Catalog response bodies serialized and compressed after a catalog change")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder currencySearchMetrics(CurrencySearchService searchService) {
+        return registry -> FunctionCounter.builder("currency.search.index.builds", searchService, CurrencySearchService::getBuildCount)
+                .description("Search index rebuilds after codes, names or symbols changed")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder catalogWarmupMetrics(CatalogWarmup warmup) {
+        return registry -> TimeGauge.builder("currency.warmup.duration", warmup, TimeUnit.MILLISECONDS, CatalogWarmup::getDurationMillis)
+                .description("Time spent loading rate data before the instance reported ready")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder currencyImportMetrics(CurrencyImportService importService) {
+        return registry -> {
+            FunctionCounter.builder("currency.import.rows", importService, CurrencyImportService::getImportedRowCount)
+                    .description("Currency rows created or updated by file imports")
+                    .register(registry);
+            FunctionCounter.builder("currency.import.failed", importService, CurrencyImportService::getFailedRowCount)
+                    .description("Import records rejected by parsing or validation")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder portfolioValuationMetrics(PortfolioValuationService valuationService) {
+        // Request latency and size are in http.server.requests{uri="/api/valuations"}
+        return registry -> {
+            FunctionCounter.builder("currency.valuation.lines", valuationService, PortfolioValuationService::getValuedLineCount)
+                    .tag("result", "valued")
+                    .description("Holdings priced by POST /api/valuations")
+                    .register(registry);
+            FunctionCounter.builder("currency.valuation.lines", valuationService, PortfolioValuationService::getFailedLineCount)
+                    .tag("result", "failed")
+                    .description("Holdings with an unknown code or an amount out of range")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder currencyClusterMetrics(CurrencyClusterNotifier clusterNotifier) {
+        // Propagation latency is recorded by the notifier itself as currency.cluster.propagation
+        return registry -> {
+            Gauge.builder("currency.cluster.listener.connected", clusterNotifier, notifier -> notifier.isConnected() ? 1 : 0)
+                    .description("Whether the LISTEN connection for changes from other instances is up")
+                    .register(registry);
+            FunctionCounter.builder("currency.cluster.notifications", clusterNotifier, CurrencyClusterNotifier::getSentCount)
+                    .tag("direction", "sent")
+                    .description("Change notifications sent to other instances")
+                    .register(registry);
+            FunctionCounter.builder("currency.cluster.notifications", clusterNotifier, CurrencyClusterNotifier::getReceivedCount)
+                    .tag("direction", "received")
+                    .description("Change notifications received from other instances")
+                    .register(registry);
+            FunctionCounter.builder("currency.cluster.resyncs", clusterNotifier, CurrencyClusterNotifier::getResyncCount)
+                    .description("Full reloads after a reconnect or an oversized change set")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.currencymanagement.backend.config;
+
+import com.currencymanagement.backend.service.ReplicaLagGuard;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the primary.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers picking the
+ * target until the first statement. Read-only work still goes to the primary while the
+ * {@link ReplicaLagGuard} reports the replica as behind.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagGuard lagGuard;
+
+    private final LongAdder primaryRoutes = new LongAdder();
+    private final LongAdder replicaRoutes = new LongAdder();
+    private final LongAdder lagFallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (lagGuard.isReplicaCaughtUp()) {
+                replicaRoutes.increment();
+                return Target.REPLICA;
+            }
+            lagFallbacks.increment();
+        }
+        primaryRoutes.increment();
+        return Target.PRIMARY;
+    }
+
+    public long getPrimaryRouteCount() {
+        return primaryRoutes.sum();
+    }
+
+    public long getReplicaRouteCount() {
+        return replicaRoutes.sum();
+    }
+
+    public long getLagFallbackCount() {
+        return lagFallbacks.sum();
+    }
+}
@@ -0,0 +1,111 @@
+package com.currencymanagement.backend.controller;
+
+import com.currencymanagement.backend.dto.CurrencyImportResponse;
+import com.currencymanagement.backend.service.CurrencyExportService;
+import com.currencymanagement.backend.service.CurrencyImportService;
+import com.currencymanagement.backend.service.DataFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:19006"})
+@Tag(name = "Bulk Data", description = "API xuất và nhập dữ liệu tiền tệ hàng loạt")
+public class BulkDataController {
+    
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private CurrencyExportService exportService;
+    
+    @Autowired
+    private CurrencyImportService importService;
+    
+    @GetMapping("/currencies/export")
+    @Operation(summary = "Xuất dữ liệu tiền tệ", description = "Xuất toàn bộ danh sách tiền tệ hoặc lịch sử tỷ giá dạng NDJSON hoặc CSV, truyền từng dòng từ cơ sở dữ liệu nên dùng được với số lượng bản ghi rất lớn. Nén gzip nếu client gửi Accept-Encoding: gzip")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về luồng dữ liệu"),
+        @ApiResponse(responseCode = "400", description = "Định dạng hoặc tập dữ liệu không hợp lệ"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<StreamingResponseBody> exportCurrencies(
+            @Parameter(description = "Định dạng: ndjson hoặc csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Tập dữ liệu: currencies (danh sách tiền tệ) hoặc history (lịch sử tỷ giá)", example = "currencies")
+            @RequestParam(defaultValue = "currencies") String dataset,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        DataFormat dataFormat = DataFormat.fromParameter(format);
+        boolean history = dataset.equals("history");
+        if (dataFormat == null || !(history || dataset.equals("currencies"))) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(dataFormat.getMediaType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename((history ? "currency_rate_history." : "currencies.") + dataFormat.getParameter())
+                .build().toString())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        
+        // Rows are written as they are fetched; the response is never held in memory as a whole
+        return response.body(out -> {
+            OutputStream body = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+            if (history) {
+                exportService.exportRateHistory(dataFormat, body);
+            } else {
+                exportService.exportCurrencies(dataFormat, body);
+            }
+            if (gzip) {
+                ((GZIPOutputStream) body).finish();
+            }
+        });
+    }
+    
+    // Restricted to the data formats: a form content type would have the body consumed as request parameters
+    @PostMapping(value = "/currencies/import", consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Nhập tiền tệ từ file", description = "Đọc file NDJSON hoặc CSV (có thể nén gzip với Content-Encoding: gzip) trong body theo từng bản ghi, tạo mới hoặc cập nhật tiền tệ theo mã. Bản ghi lỗi được báo theo số dòng và không làm dừng việc nhập. File xuất từ /api/currencies/export có thể nhập lại trực tiếp")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Đã đọc hết file - Trả về số bản ghi đã nhập và các dòng lỗi"),
+        @ApiResponse(responseCode = "400", description = "Định dạng không hợp lệ hoặc file CSV thiếu cột bắt buộc"),
+        @ApiResponse(responseCode = "415", description = "Content-Type không phải text/csv, application/x-ndjson hoặc application/octet-stream"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<CurrencyImportResponse> importCurrencies(
+            @Parameter(description = "Định dạng: ndjson hoặc csv. Mặc định suy ra từ Content-Type", example = "csv")
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        DataFormat dataFormat = format != null ? DataFormat.fromParameter(format) : DataFormat.fromMediaType(contentType);
+        if (dataFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, GZIP_BUFFER_SIZE) : body;
+        try {
+            return ResponseEntity.ok(importService.importCurrencies(dataFormat, in));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
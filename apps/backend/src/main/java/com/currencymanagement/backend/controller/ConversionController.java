@@ -0,0 +1,118 @@
+package com.currencymanagement.backend.controller;
+
+import com.currencymanagement.backend.dto.ConversionResponse;
+import com.currencymanagement.backend.dto.ValuationResponse;
+import com.currencymanagement.backend.service.CurrencyConversionService;
+import com.currencymanagement.backend.service.PortfolioValuation;
+import com.currencymanagement.backend.service.PortfolioValuationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:19006"})
+@Tag(name = "Currency Conversion", description = "API quy đổi tiền tệ")
+public class ConversionController {
+    
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private CurrencyConversionService conversionService;
+    
+    @Autowired
+    private PortfolioValuationService valuationService;
+    
+    @GetMapping("/convert")
+    @Operation(summary = "Quy đổi tiền tệ", description = "Quy đổi một số tiền từ tiền tệ nguồn sang tiền tệ đích theo tỷ giá hiện tại")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về kết quả quy đổi"),
+        @ApiResponse(responseCode = "400", description = "Số tiền không hợp lệ hoặc vượt quá giới hạn"),
+        @ApiResponse(responseCode = "404", description = "Không tìm thấy tiền tệ"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<ConversionResponse> convert(
+            @Parameter(description = "Mã tiền tệ nguồn", example = "EUR")
+            @RequestParam String from,
+            @Parameter(description = "Mã tiền tệ đích", example = "JPY")
+            @RequestParam String to,
+            @Parameter(description = "Số tiền cần quy đổi", example = "100")
+            @RequestParam BigDecimal amount) {
+        try {
+            Optional<ConversionResponse> response = conversionService.convert(
+                from.toUpperCase(), to.toUpperCase(), amount);
+            return response.map(ResponseEntity::ok)
+                           .orElse(ResponseEntity.notFound().build());
+        } catch (ArithmeticException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping(value = "/valuations", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Định giá danh mục nhiều tiền tệ", description = "Quy đổi một danh sách (có thể tới hàng triệu) khoản nắm giữ sang tiền tệ đích và tính tổng. "
+        + "Mọi dòng dùng cùng một phiên bản tỷ giá (catalogVersion), làm tròn như /api/convert. Dòng có mã không tồn tại hoặc số tiền vượt giới hạn được báo lỗi riêng và không tính vào tổng. "
+        + "Danh mục lớn được tính song song theo từng khối và kết quả được truyền dần; có thể nén gzip request (Content-Encoding: gzip) và response (Accept-Encoding: gzip)")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Tiền tệ đích và danh sách khoản nắm giữ", required = true,
+        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(
+            value = "{\"target\": \"USD\", \"holdings\": [{\"code\": \"EUR\", \"amount\": 100.5}, {\"code\": \"JPY\", \"amount\": 25000}]}")))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về giá trị từng dòng và tổng giá trị",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ValuationResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Body không hợp lệ, thiếu target/holdings hoặc quá nhiều khoản nắm giữ"),
+        @ApiResponse(responseCode = "404", description = "Không tìm thấy tiền tệ đích"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<StreamingResponseBody> valuePortfolio(
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            InputStream body) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, GZIP_BUFFER_SIZE) : body;
+        PortfolioValuation valuation;
+        try {
+            Optional<PortfolioValuation> result = valuationService.value(in);
+            if (result.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            valuation = result.get();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        
+        // Valued before the first byte is sent, so bad requests still get a 400 or 404; lines are then
+        // written as they are formatted, without building the response in memory
+        return response.body(out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+            valuationService.write(valuation, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        });
+    }
+}
@@ -1,12 +1,33 @@
 package com.currencymanagement.backend.controller;
 
+import com.currencymanagement.backend.dto.BatchUpsertResponse;
+import com.currencymanagement.backend.dto.CandleResponse;
 import com.currencymanagement.backend.dto.CreateCurrencyRequest;
+import com.currencymanagement.backend.dto.CurrencyDeltaResponse;
 import com.currencymanagement.backend.dto.PagedResponse;
+import com.currencymanagement.backend.dto.RateTick;
+import com.currencymanagement.backend.dto.TickIngestResponse;
 import com.currencymanagement.backend.dto.UpdateCurrencyRequest;
+import com.currencymanagement.backend.dto.UpdateRateRequest;
 import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.entity.CurrencyRateHistory;
+import com.currencymanagement.backend.repository.CurrencyBatchRepository;
+import com.currencymanagement.backend.service.CandleInterval;
+import com.currencymanagement.backend.service.CatalogResponseCache;
+import com.currencymanagement.backend.service.CurrencyCandleService;
+import com.currencymanagement.backend.service.CurrencyBinaryEncoder;
+import com.currencymanagement.backend.service.CurrencyChangeBroadcaster;
+import com.currencymanagement.backend.service.CurrencyDeltaService;
+import com.currencymanagement.backend.service.CurrencySearchService;
 import com.currencymanagement.backend.service.CurrencyService;
+import com.currencymanagement.backend.service.CurrencySnapshot;
+import com.currencymanagement.backend.service.CurrencySortField;
+import com.currencymanagement.backend.service.RateTickIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,9 +37,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,21 +64,99 @@ public class CurrencyController {
     @Autowired
     private CurrencyService currencyService;
     
+    @Autowired
+    private CurrencyChangeBroadcaster changeBroadcaster;
+    
+    @Autowired
+    private RateTickIngestionService rateTickIngestionService;
+    
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+    
+    @Autowired
+    private CurrencyDeltaService currencyDeltaService;
+    
+    @Autowired
+    private CurrencyCandleService currencyCandleService;
+    
+    @Autowired
+    private CurrencySearchService currencySearchService;
+    
     @GetMapping("/currencies")
-    @Operation(summary = "Lấy danh sách tất cả tiền tệ", description = "Trả về danh sách tất cả các loại tiền tệ có trong hệ thống")
+    @Operation(summary = "Lấy danh sách tất cả tiền tệ", description = "Trả về danh sách tất cả các loại tiền tệ có trong hệ thống. Nén gzip hoặc brotli theo Accept-Encoding")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Thành công - Trả về danh sách tiền tệ"),
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về danh sách tiền tệ",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Currency.class)))),
+        @ApiResponse(responseCode = "304", description = "Dữ liệu không thay đổi so với ETag trong If-None-Match"),
         @ApiResponse(responseCode = "500", description = "Lỗi server")
     })
-    public ResponseEntity<List<Currency>> getAllCurrencies() {
+    public ResponseEntity<?> getAllCurrencies(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        String eTag = currencyService.getCatalogETag();
+        CatalogResponseCache.CatalogBodies bodies = catalogResponseCache.current();
+        if (bodies != null) {
+            return encodedResponse(bodies.all(), acceptEncoding, eTag, webRequest);
+        }
+        if (webRequest.checkNotModified(eTag)) {
+            // 304 has already been written, skip the query and serialization
+            return null;
+        }
+        
         List<Currency> currencies = currencyService.getAllCurrencies();
-        return ResponseEntity.ok(currencies);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(currencies);
+    }
+    
+    @GetMapping(value = "/currencies", produces = CurrencyBinaryEncoder.MEDIA_TYPE)
+    @Operation(summary = "Lấy tỷ giá dạng nhị phân", description = "Chọn bằng Accept: " + CurrencyBinaryEncoder.MEDIA_TYPE
+        + ". Mã tiền tệ đóng gói thành int, tỷ giá là số nguyên long (nhân 10^4), phiên bản danh mục nằm trong header X-Catalog-Version")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về toàn bộ tỷ giá dạng nhị phân",
+            content = @Content(mediaType = CurrencyBinaryEncoder.MEDIA_TYPE)),
+        @ApiResponse(responseCode = "304", description = "Dữ liệu không thay đổi so với ETag trong If-None-Match"),
+        @ApiResponse(responseCode = "406", description = "Có mã tiền tệ không biểu diễn được bằng 3 ký tự ASCII"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<byte[]> getAllCurrenciesBinary(
+            @Parameter(description = "Kèm id, tên và ký hiệu của mỗi tiền tệ", example = "false")
+            @RequestParam(defaultValue = "false") boolean metadata,
+            WebRequest webRequest) {
+        String eTag = binaryETag(currencyService.getCatalogETag(), metadata);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        
+        byte[] body;
+        long version;
+        try {
+            CatalogResponseCache.CatalogBodies bodies = catalogResponseCache.current();
+            if (bodies != null) {
+                body = bodies.binary(metadata).identity();
+                version = bodies.version();
+            } else {
+                CurrencySnapshot snapshot = new CurrencySnapshot(currencyService.getCatalogVersion(),
+                    currencyService.getAllCurrencies());
+                ByteBuffer encoded = new CurrencyBinaryEncoder().encode(snapshot, metadata);
+                body = Arrays.copyOfRange(encoded.array(), 0, encoded.limit());
+                version = snapshot.getVersion();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(eTag)
+            .contentType(MediaType.parseMediaType(CurrencyBinaryEncoder.MEDIA_TYPE))
+            .header("X-Catalog-Version", Long.toString(version))
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+            .body(body);
     }
     
     @GetMapping("/currencies/paged")
     @Operation(summary = "Lấy danh sách tiền tệ có phân trang", description = "Trả về danh sách tiền tệ với thông tin phân trang")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Thành công - Trả về danh sách tiền tệ có phân trang"),
+        @ApiResponse(responseCode = "304", description = "Dữ liệu không thay đổi so với ETag trong If-None-Match"),
         @ApiResponse(responseCode = "400", description = "Tham số phân trang không hợp lệ"),
         @ApiResponse(responseCode = "500", description = "Lỗi server")
     })
@@ -57,12 +168,41 @@ public class CurrencyController {
             @Parameter(description = "Sắp xếp theo trường nào", example = "code")
             @RequestParam(defaultValue = "code") String sortBy,
             @Parameter(description = "Hướng sắp xếp (asc/desc)", example = "asc")
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Chế độ phân trang: offset (theo số trang) hoặc keyset (theo cursor, không đếm tổng)", example = "offset")
+            @RequestParam(defaultValue = "offset") String mode,
+            @Parameter(description = "Cursor nextCursor của trang trước (chế độ keyset)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Trả về tổng số phần tử ước lượng ở chế độ keyset", example = "false")
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            WebRequest webRequest) {
+        
+        // Only indexed columns may be sorted by
+        CurrencySortField sortField = CurrencySortField.fromProperty(sortBy);
+        if (sortField == null || size < 1 || size > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        
+        String eTag = currencyService.getCatalogETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        
+        if (after != null || mode.equalsIgnoreCase("keyset")) {
+            try {
+                PagedResponse<Currency> response = currencyService.getCurrenciesAfter(
+                    sortField, descending, after, size, withTotal);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(response);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
         
         // Create Sort object
-        Sort sort = sortDir.equalsIgnoreCase("desc") 
-            ? Sort.by(sortBy).descending() 
-            : Sort.by(sortBy).ascending();
+        Sort sort = descending 
+            ? Sort.by(sortField.getProperty(), "id").descending() 
+            : Sort.by(sortField.getProperty(), "id").ascending();
         
         // Create Pageable instance
         Pageable pageable = PageRequest.of(page, size, sort);
@@ -79,24 +219,162 @@ public class CurrencyController {
             currencyPage.getTotalPages()
         );
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(response);
+    }
+    
+    @GetMapping("/currencies/changes")
+    @Operation(summary = "Đồng bộ delta", description = "Trả về các tiền tệ được tạo/cập nhật và mã tiền tệ bị xóa kể từ cursor since, kèm cursor cho lần gọi sau. Không có cursor (hoặc cursor quá cũ) sẽ trả về toàn bộ danh mục với reset = true")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về các thay đổi"),
+        @ApiResponse(responseCode = "400", description = "Cursor hoặc limit không hợp lệ"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<CurrencyDeltaResponse> getCurrencyChanges(
+            @Parameter(description = "Cursor nextCursor của lần đồng bộ trước")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Số tiền tệ thay đổi tối đa mỗi lần (1-10000)", example = "1000")
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > 10000) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                .body(currencyDeltaService.getChangesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/currencies/search")
+    @Operation(summary = "Tìm kiếm tiền tệ", description = "Gợi ý tiền tệ theo mã, tên (không phân biệt hoa thường và dấu tiếng Việt) hoặc ký hiệu, xếp hạng theo mức độ khớp. Tìm trên chỉ mục trong bộ nhớ, không truy vấn database")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về các tiền tệ khớp, khớp nhất trước",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Currency.class)))),
+        @ApiResponse(responseCode = "400", description = "Thiếu q hoặc limit không hợp lệ"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<List<Currency>> searchCurrencies(
+            @Parameter(description = "Chuỗi tìm kiếm: mã, tên hoặc ký hiệu", example = "dong")
+            @RequestParam String q,
+            @Parameter(description = "Số kết quả tối đa (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(currencySearchService.search(q, limit));
+    }
+    
+    @GetMapping(value = "/currencies/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Theo dõi thay đổi tiền tệ (SSE)", description = "Mở luồng Server-Sent Events, đẩy sự kiện CREATED/UPDATED/DELETED mỗi khi tiền tệ thay đổi. Sự kiện đầu tiên là READY kèm phiên bản hiện tại; RESYNC nghĩa là client cần tải lại toàn bộ danh sách")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Mở luồng sự kiện"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public SseEmitter streamCurrencyChanges() {
+        return changeBroadcaster.subscribe();
     }
     
     @GetMapping("/currencies/{code}")
     @Operation(summary = "Lấy tiền tệ theo mã", description = "Trả về thông tin chi tiết của một loại tiền tệ dựa trên mã tiền tệ")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Thành công - Trả về thông tin tiền tệ"),
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về thông tin tiền tệ",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Currency.class))),
+        @ApiResponse(responseCode = "304", description = "Dữ liệu không thay đổi so với ETag trong If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Không tìm thấy tiền tệ"),
         @ApiResponse(responseCode = "500", description = "Lỗi server")
     })
-    public ResponseEntity<Currency> getCurrencyByCode(
+    public ResponseEntity<?> getCurrencyByCode(
             @Parameter(description = "Mã tiền tệ (VD: USD, EUR, VND)", example = "USD") 
-            @PathVariable String code) {
+            @PathVariable String code,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        String eTag = currencyService.getCatalogETag();
+        CatalogResponseCache.CatalogBodies bodies = catalogResponseCache.current();
+        if (bodies != null) {
+            CatalogResponseCache.EncodedBody body = bodies.byCode(code.toUpperCase());
+            return body != null
+                ? encodedResponse(body, acceptEncoding, eTag, webRequest)
+                : ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        
         Optional<Currency> currency = currencyService.getCurrencyByCode(code.toUpperCase());
-        return currency.map(ResponseEntity::ok)
+        return currency.map(value -> ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(value))
                       .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/currencies/{code}/history")
+    @Operation(summary = "Lấy lịch sử tỷ giá", description = "Trả về các thay đổi tỷ giá trong khoảng [from, to], hoặc tỷ giá có hiệu lực tại thời điểm asOf")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về lịch sử tỷ giá"),
+        @ApiResponse(responseCode = "400", description = "Tham số không hợp lệ"),
+        @ApiResponse(responseCode = "404", description = "Không có tỷ giá tại thời điểm asOf"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<List<CurrencyRateHistory>> getRateHistory(
+            @Parameter(description = "Mã tiền tệ (VD: USD, EUR, VND)", example = "EUR")
+            @PathVariable String code,
+            @Parameter(description = "Thời điểm bắt đầu (ISO-8601)", example = "2023-12-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Thời điểm kết thúc (ISO-8601), mặc định là hiện tại", example = "2023-12-02T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Lấy tỷ giá có hiệu lực tại thời điểm này (ISO-8601)", example = "2023-12-01T14:03:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            @Parameter(description = "Số bản ghi tối đa (1-10000)", example = "1000")
+            @RequestParam(defaultValue = "1000") int limit) {
+        String currencyCode = code.toUpperCase();
+        
+        if (asOf != null) {
+            if (from != null || to != null) {
+                return ResponseEntity.badRequest().build();
+            }
+            return currencyService.getRateAsOf(currencyCode, asOf)
+                    .map(entry -> ResponseEntity.ok(List.of(entry)))
+                    .orElse(ResponseEntity.notFound().build());
+        }
+        
+        if (limit < 1 || limit > 10000) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime rangeFrom = from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime rangeTo = to != null ? to : LocalDateTime.now();
+        if (rangeFrom.isAfter(rangeTo)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(currencyService.getRateHistory(currencyCode, rangeFrom, rangeTo, limit));
+    }
+    
+    @GetMapping("/currencies/{code}/candles")
+    @Operation(summary = "Lấy nến OHLC của tỷ giá", description = "Trả về nến open-high-low-close theo khung 1m, 5m, 1h hoặc 1d trong khoảng [from, to]. Khoảng không có thay đổi tỷ giá sẽ không có nến")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về danh sách nến, cũ nhất trước"),
+        @ApiResponse(responseCode = "400", description = "Khung thời gian không hợp lệ, from sau to hoặc quá 10000 nến"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<List<CandleResponse>> getCandles(
+            @Parameter(description = "Mã tiền tệ (VD: USD, EUR, VND)", example = "EUR")
+            @PathVariable String code,
+            @Parameter(description = "Khung thời gian: 1m, 5m, 1h hoặc 1d", example = "5m")
+            @RequestParam(defaultValue = "1m") String interval,
+            @Parameter(description = "Thời điểm bắt đầu (ISO-8601), mặc định là 100 nến trước to", example = "2023-12-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Thời điểm kết thúc (ISO-8601), mặc định là hiện tại", example = "2023-12-02T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        CandleInterval candleInterval = CandleInterval.fromParameter(interval);
+        if (candleInterval == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime rangeTo = to != null ? to : LocalDateTime.now();
+        LocalDateTime rangeFrom = from != null ? from : rangeTo.minus(candleInterval.getLength().multipliedBy(99));
+        if (rangeFrom.isAfter(rangeTo)
+                || Duration.between(rangeFrom, rangeTo).compareTo(candleInterval.getLength().multipliedBy(10000)) >= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(currencyCandleService.getCandles(code.toUpperCase(), candleInterval, rangeFrom, rangeTo));
+    }
+    
     @PostMapping("/currencies")
     @Operation(summary = "Tạo tiền tệ mới", description = "Tạo một loại tiền tệ mới trong hệ thống")
     @ApiResponses(value = {
@@ -116,12 +394,47 @@ public class CurrencyController {
         return ResponseEntity.ok(savedCurrency);
     }
     
+    @PostMapping("/currencies/batch")
+    @Operation(summary = "Tạo hoặc cập nhật hàng loạt tiền tệ", description = "Tạo mới hoặc cập nhật theo mã tiền tệ cho cả danh sách trong một transaction, trả về kết quả của từng phần tử")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về kết quả của từng phần tử"),
+        @ApiResponse(responseCode = "400", description = "Danh sách rỗng"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<BatchUpsertResponse> upsertCurrencies(
+            @Parameter(description = "Danh sách tiền tệ cần tạo hoặc cập nhật")
+            @RequestBody List<CreateCurrencyRequest> requests) {
+        if (requests.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // Items are validated one by one so a single bad row does not reject the whole batch
+        return ResponseEntity.ok(currencyService.upsertCurrencies(requests));
+    }
+    
+    @PostMapping("/currencies/ticks")
+    @Operation(summary = "Tiếp nhận cập nhật tỷ giá tần suất cao", description = "Nhận các cập nhật tỷ giá từ nguồn dữ liệu thị trường. Tỷ giá mới có hiệu lực ngay khi đọc và được ghi xuống cơ sở dữ liệu theo lô định kỳ, chỉ giữ giá trị mới nhất của mỗi mã tiền tệ")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Đã tiếp nhận - Trả về số cập nhật được chấp nhận và bị từ chối"),
+        @ApiResponse(responseCode = "400", description = "Danh sách rỗng"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<TickIngestResponse> ingestTicks(
+            @Parameter(description = "Danh sách cập nhật tỷ giá, theo thứ tự thời gian")
+            @RequestBody List<RateTick> ticks) {
+        if (ticks.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(rateTickIngestionService.submit(ticks));
+    }
+    
     @PutMapping("/currencies/{id}")
     @Operation(summary = "Cập nhật tiền tệ", description = "Cập nhật thông tin của một loại tiền tệ đã tồn tại")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Thành công - Tiền tệ đã được cập nhật"),
         @ApiResponse(responseCode = "400", description = "Dữ liệu không hợp lệ"),
         @ApiResponse(responseCode = "404", description = "Không tìm thấy tiền tệ"),
+        @ApiResponse(responseCode = "409", description = "Phiên bản client gửi lên đã cũ - Tiền tệ đã bị thay đổi bởi một yêu cầu khác"),
         @ApiResponse(responseCode = "500", description = "Lỗi server")
     })
     public ResponseEntity<Currency> updateCurrency(
@@ -137,8 +450,37 @@ public class CurrencyController {
         }
         
         Currency currency = convertToEntity(request, existingCurrency.get());
-        Currency updatedCurrency = currencyService.saveCurrency(currency);
-        return ResponseEntity.ok(updatedCurrency);
+        try {
+            Currency updatedCurrency = currencyService.saveCurrency(currency);
+            return ResponseEntity.ok(updatedCurrency);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PatchMapping("/currencies/{id}/rate")
+    @Operation(summary = "Cập nhật tỷ giá có điều kiện", description = "Cập nhật tỷ giá bằng một câu lệnh UPDATE duy nhất, chỉ thành công nếu phiên bản tiền tệ vẫn bằng phiên bản client đã đọc")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về tiền tệ với phiên bản mới"),
+        @ApiResponse(responseCode = "400", description = "Dữ liệu không hợp lệ"),
+        @ApiResponse(responseCode = "404", description = "Không tìm thấy tiền tệ"),
+        @ApiResponse(responseCode = "409", description = "Phiên bản đã thay đổi - Trả về tiền tệ hiện tại để client thử lại"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<Currency> updateRate(
+            @Parameter(description = "ID của tiền tệ cần cập nhật", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Tỷ giá mới và phiên bản đã đọc")
+            @Valid @RequestBody UpdateRateRequest request) {
+        Optional<CurrencyBatchRepository.RateUpdate> result =
+            currencyService.updateRate(id, request.getVersion(), request.getExchangeRate());
+        if (result.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        CurrencyBatchRepository.RateUpdate update = result.get();
+        return update.applied()
+            ? ResponseEntity.ok(update.currency())
+            : ResponseEntity.status(HttpStatus.CONFLICT).body(update.currency());
     }
     
     @DeleteMapping("/currencies/{id}")
@@ -156,6 +498,41 @@ public class CurrencyController {
     }
     
     // Helper methods to convert from DTO to Entity
+    /**
+     * Sends a pre-encoded catalog body in the best coding the client accepts. Each coding is a
+     * different representation, so each gets its own strong ETag.
+     */
+    private ResponseEntity<byte[]> encodedResponse(CatalogResponseCache.EncodedBody body, String acceptEncoding,
+                                                   String eTag, WebRequest webRequest) {
+        byte[] bytes = body.identity();
+        String coding = null;
+        if (body.brotli() != null && CatalogResponseCache.accepts(acceptEncoding, CatalogResponseCache.BROTLI)) {
+            bytes = body.brotli();
+            coding = CatalogResponseCache.BROTLI;
+        } else if (body.gzip() != null && CatalogResponseCache.accepts(acceptEncoding, CatalogResponseCache.GZIP)) {
+            bytes = body.gzip();
+            coding = CatalogResponseCache.GZIP;
+        }
+        String representationTag = coding != null ? eTag.substring(0, eTag.length() - 1) + "-" + coding + "\"" : eTag;
+        if (webRequest.checkNotModified(representationTag)) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .eTag(representationTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (coding != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding);
+        }
+        return response.body(bytes);
+    }
+    
+    private static String binaryETag(String eTag, boolean metadata) {
+        return eTag.substring(0, eTag.length() - 1) + (metadata ? "-bin-meta\"" : "-bin\"");
+    }
+    
     private Currency convertToEntity(CreateCurrencyRequest request) {
         Currency currency = new Currency();
         currency.setCode(request.getCode().toUpperCase());
@@ -163,7 +540,7 @@ public class CurrencyController {
         currency.setSymbol(request.getSymbol());
         currency.setExchangeRate(request.getExchangeRate());
         
-        // createdAt and updatedAt will be automatically set by @PrePersist
+        // createdAt and updatedAt are set by the database on insert
         return currency;
     }
     
@@ -175,8 +552,11 @@ public class CurrencyController {
         currency.setSymbol(request.getSymbol());
         currency.setExchangeRate(request.getExchangeRate());
         
-        // createdAt remains unchanged, updatedAt will be automatically updated by @PreUpdate
+        // createdAt remains unchanged, updatedAt is set by the database on update
         currency.setCreatedAt(existingCurrency.getCreatedAt());
+        // The version the client read, if any: the save then fails with a conflict once the row has
+        // moved past it. Without one the service overwrites the row it reads in the write transaction
+        currency.setVersion(request.getVersion());
         
         return currency;
     }
@@ -0,0 +1,42 @@
+package com.currencymanagement.backend.controller;
+
+import com.currencymanagement.backend.dto.RateMatrixResponse;
+import com.currencymanagement.backend.service.CrossRateService;
+import com.currencymanagement.backend.service.CurrencyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:19006"})
+@Tag(name = "Exchange Rates", description = "API tỷ giá chéo giữa các loại tiền tệ")
+public class RateController {
+    
+    @Autowired
+    private CrossRateService crossRateService;
+    
+    @Autowired
+    private CurrencyService currencyService;
+    
+    @GetMapping("/rates/matrix")
+    @Operation(summary = "Lấy ma trận tỷ giá chéo", description = "Trả về tỷ giá chéo giữa mọi cặp tiền tệ, tính sẵn trong bộ nhớ")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Thành công - Trả về ma trận tỷ giá"),
+        @ApiResponse(responseCode = "304", description = "Dữ liệu không thay đổi so với ETag trong If-None-Match"),
+        @ApiResponse(responseCode = "500", description = "Lỗi server")
+    })
+    public ResponseEntity<RateMatrixResponse> getRateMatrix(WebRequest webRequest) {
+        String eTag = currencyService.getCatalogETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(eTag).body(crossRateService.getMatrixResponse());
+    }
+}
@@ -0,0 +1,78 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Kết quả xử lý một phần tử trong batch")
+public class BatchItemResult {
+    
+    public enum Status {
+        CREATED, UPDATED, SKIPPED, FAILED
+    }
+    
+    @Schema(description = "Vị trí của phần tử trong request (bắt đầu từ 0)", example = "0")
+    private int index;
+    
+    @Schema(description = "Mã tiền tệ", example = "EUR")
+    private String code;
+    
+    @Schema(description = "Kết quả: CREATED, UPDATED, SKIPPED (bị ghi đè bởi phần tử sau cùng mã) hoặc FAILED", example = "UPDATED")
+    private Status status;
+    
+    @Schema(description = "ID của tiền tệ sau khi ghi", example = "2")
+    private Long id;
+    
+    @Schema(description = "Lý do khi phần tử bị bỏ qua hoặc lỗi")
+    private String message;
+    
+    // Constructors
+    public BatchItemResult() {}
+    
+    public BatchItemResult(int index, String code, Status status, Long id, String message) {
+        this.index = index;
+        this.code = code;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,80 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Kết quả cập nhật hàng loạt tiền tệ")
+public class BatchUpsertResponse {
+    
+    @Schema(description = "Số tiền tệ được tạo mới", example = "3")
+    private int created;
+    
+    @Schema(description = "Số tiền tệ được cập nhật", example = "147")
+    private int updated;
+    
+    @Schema(description = "Số phần tử bị bỏ qua", example = "0")
+    private int skipped;
+    
+    @Schema(description = "Số phần tử lỗi", example = "0")
+    private int failed;
+    
+    @Schema(description = "Kết quả của từng phần tử, theo thứ tự trong request")
+    private List<BatchItemResult> items;
+    
+    // Constructors
+    public BatchUpsertResponse() {}
+    
+    public BatchUpsertResponse(List<BatchItemResult> items) {
+        this.items = items;
+        for (BatchItemResult item : items) {
+            switch (item.getStatus()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case SKIPPED -> skipped++;
+                case FAILED -> failed++;
+            }
+        }
+    }
+    
+    // Getters and Setters
+    public int getCreated() {
+        return created;
+    }
+    
+    public void setCreated(int created) {
+        this.created = created;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public int getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<BatchItemResult> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,77 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Schema(description = "Nến OHLC của tỷ giá trong một khoảng thời gian")
+public class CandleResponse {
+    
+    @Schema(description = "Thời điểm bắt đầu của nến", example = "2024-01-01T10:30:00")
+    private LocalDateTime bucketStart;
+    
+    @Schema(description = "Tỷ giá đầu tiên trong khoảng", example = "0.9200")
+    private BigDecimal open;
+    
+    @Schema(description = "Tỷ giá cao nhất trong khoảng", example = "0.9250")
+    private BigDecimal high;
+    
+    @Schema(description = "Tỷ giá thấp nhất trong khoảng", example = "0.9180")
+    private BigDecimal low;
+    
+    @Schema(description = "Tỷ giá cuối cùng trong khoảng", example = "0.9210")
+    private BigDecimal close;
+    
+    // Constructors
+    public CandleResponse() {}
+    
+    public CandleResponse(LocalDateTime bucketStart, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close) {
+        this.bucketStart = bucketStart;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+    }
+    
+    // Getters and Setters
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public BigDecimal getOpen() {
+        return open;
+    }
+    
+    public void setOpen(BigDecimal open) {
+        this.open = open;
+    }
+    
+    public BigDecimal getHigh() {
+        return high;
+    }
+    
+    public void setHigh(BigDecimal high) {
+        this.high = high;
+    }
+    
+    public BigDecimal getLow() {
+        return low;
+    }
+    
+    public void setLow(BigDecimal low) {
+        this.low = low;
+    }
+    
+    public BigDecimal getClose() {
+        return close;
+    }
+    
+    public void setClose(BigDecimal close) {
+        this.close = close;
+    }
+}
@@ -0,0 +1,76 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Kết quả quy đổi tiền tệ")
+public class ConversionResponse {
+    
+    @Schema(description = "Mã tiền tệ nguồn", example = "EUR")
+    private String from;
+    
+    @Schema(description = "Mã tiền tệ đích", example = "JPY")
+    private String to;
+    
+    @Schema(description = "Số tiền cần quy đổi (làm tròn 4 chữ số thập phân)", example = "100.0000")
+    private BigDecimal amount;
+    
+    @Schema(description = "Số tiền sau khi quy đổi (làm tròn HALF_EVEN, 4 chữ số thập phân)", example = "11956.5217")
+    private BigDecimal result;
+    
+    @Schema(description = "Tỷ giá chéo đã sử dụng (8 chữ số thập phân)", example = "119.56521739")
+    private BigDecimal rate;
+    
+    // Constructors
+    public ConversionResponse() {}
+    
+    public ConversionResponse(String from, String to, BigDecimal amount, BigDecimal result, BigDecimal rate) {
+        this.from = from;
+        this.to = to;
+        this.amount = amount;
+        this.result = result;
+        this.rate = rate;
+    }
+    
+    // Getters and Setters
+    public String getFrom() {
+        return from;
+    }
+    
+    public void setFrom(String from) {
+        this.from = from;
+    }
+    
+    public String getTo() {
+        return to;
+    }
+    
+    public void setTo(String to) {
+        this.to = to;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public BigDecimal getResult() {
+        return result;
+    }
+    
+    public void setResult(BigDecimal result) {
+        this.result = result;
+    }
+    
+    public BigDecimal getRate() {
+        return rate;
+    }
+    
+    public void setRate(BigDecimal rate) {
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,58 @@
+package com.currencymanagement.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Sự kiện thay đổi tiền tệ được đẩy qua Server-Sent Events")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CurrencyChangeEvent {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+    
+    @Schema(description = "Loại thay đổi", example = "UPDATED")
+    private Type type;
+    
+    @Schema(description = "Mã tiền tệ", example = "EUR")
+    private String code;
+    
+    @Schema(description = "Tỷ giá mới so với USD (null khi tiền tệ bị xóa)", example = "0.9200")
+    private BigDecimal exchangeRate;
+    
+    // Constructors
+    public CurrencyChangeEvent() {}
+    
+    public CurrencyChangeEvent(Type type, String code, BigDecimal exchangeRate) {
+        this.type = type;
+        this.code = code;
+        this.exchangeRate = exchangeRate;
+    }
+    
+    // Getters and Setters
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public BigDecimal getExchangeRate() {
+        return exchangeRate;
+    }
+    
+    public void setExchangeRate(BigDecimal exchangeRate) {
+        this.exchangeRate = exchangeRate;
+    }
+}
@@ -0,0 +1,78 @@
+package com.currencymanagement.backend.dto;
+
+import com.currencymanagement.backend.entity.Currency;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Các thay đổi của danh mục tiền tệ kể từ một cursor")
+public class CurrencyDeltaResponse {
+    
+    @Schema(description = "Tiền tệ được tạo hoặc cập nhật, theo thứ tự thời gian cập nhật. Ghi đè bản sao cục bộ theo mã tiền tệ")
+    private List<Currency> currencies;
+    
+    @Schema(description = "Mã tiền tệ đã bị xóa", example = "[\"XAU\"]")
+    private List<String> deleted;
+    
+    @Schema(description = "Cursor cho lần đồng bộ tiếp theo (tham số since)", example = "MjAyNC0wMS0wMVQxMDozMDowMC4xMjM0NTYKNDI")
+    private String nextCursor;
+    
+    @Schema(description = "Còn thay đổi chưa trả về, gọi lại ngay với nextCursor", example = "false")
+    private boolean hasMore;
+    
+    @Schema(description = "Đây là toàn bộ danh mục: xóa bản sao cục bộ trước khi áp dụng (khi không có cursor hoặc cursor quá cũ)", example = "false")
+    private boolean reset;
+    
+    // Constructors
+    public CurrencyDeltaResponse() {}
+    
+    public CurrencyDeltaResponse(List<Currency> currencies, List<String> deleted, String nextCursor,
+                                 boolean hasMore, boolean reset) {
+        this.currencies = currencies;
+        this.deleted = deleted;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.reset = reset;
+    }
+    
+    // Getters and Setters
+    public List<Currency> getCurrencies() {
+        return currencies;
+    }
+    
+    public void setCurrencies(List<Currency> currencies) {
+        this.currencies = currencies;
+    }
+    
+    public List<String> getDeleted() {
+        return deleted;
+    }
+    
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public boolean isReset() {
+        return reset;
+    }
+    
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+}
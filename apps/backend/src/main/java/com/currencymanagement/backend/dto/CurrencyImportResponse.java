@@ -0,0 +1,123 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Kết quả nhập tiền tệ từ file")
+public class CurrencyImportResponse {
+    
+    @Schema(description = "Số bản ghi đọc được trong file", example = "1000000")
+    private long records;
+    
+    @Schema(description = "Số tiền tệ được tạo mới", example = "12")
+    private long created;
+    
+    @Schema(description = "Số lần cập nhật tiền tệ đã có", example = "999850")
+    private long updated;
+    
+    @Schema(description = "Số bản ghi giống hệt dữ liệu đã có, không cần ghi", example = "0")
+    private long unchanged;
+    
+    @Schema(description = "Số bản ghi bị bỏ qua vì bị ghi đè bởi bản ghi sau cùng mã trong cùng một lô", example = "100")
+    private long skipped;
+    
+    @Schema(description = "Số bản ghi lỗi", example = "38")
+    private long failed;
+    
+    @Schema(description = "Thời gian nhập (ms)", example = "8421")
+    private long durationMs;
+    
+    @Schema(description = "Tốc độ nhập (bản ghi/giây)", example = "118750")
+    private long rowsPerSecond;
+    
+    @Schema(description = "Có lỗi không được liệt kê vì vượt quá số lỗi tối đa trả về", example = "false")
+    private boolean errorsTruncated;
+    
+    @Schema(description = "Các dòng lỗi và lý do, theo thứ tự trong file")
+    private List<ImportLineError> errors;
+    
+    // Constructors
+    public CurrencyImportResponse() {}
+    
+    // Getters and Setters
+    public long getRecords() {
+        return records;
+    }
+    
+    public void setRecords(long records) {
+        this.records = records;
+    }
+    
+    public long getCreated() {
+        return created;
+    }
+    
+    public void setCreated(long created) {
+        this.created = created;
+    }
+    
+    public long getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+    
+    public long getUnchanged() {
+        return unchanged;
+    }
+    
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+    
+    public long getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+    
+    public List<ImportLineError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<ImportLineError> errors) {
+        this.errors = errors;
+    }
+}
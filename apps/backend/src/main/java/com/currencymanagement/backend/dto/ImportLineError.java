@@ -0,0 +1,50 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Một dòng không nhập được trong file")
+public class ImportLineError {
+    
+    @Schema(description = "Số dòng trong file (bắt đầu từ 1)", example = "42")
+    private long line;
+    
+    @Schema(description = "Mã tiền tệ, nếu đọc được", example = "EUR")
+    private String code;
+    
+    @Schema(description = "Lý do lỗi", example = "Mã tiền tệ phải có đúng 3 ký tự")
+    private String message;
+    
+    // Constructors
+    public ImportLineError() {}
+    
+    public ImportLineError(long line, String code, String message) {
+        this.line = line;
+        this.code = code;
+        this.message = message;
+    }
+    
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+    
+    public void setLine(long line) {
+        this.line = line;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
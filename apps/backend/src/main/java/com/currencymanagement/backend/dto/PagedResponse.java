@@ -1,5 +1,6 @@
 package com.currencymanagement.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.List;
@@ -16,10 +17,10 @@ public class PagedResponse<T> {
     @Schema(description = "Số lượng phần tử mỗi trang", example = "10")
     private int size;
     
-    @Schema(description = "Tổng số phần tử", example = "100")
+    @Schema(description = "Tổng số phần tử (-1 nếu không tính, ở chế độ keyset có thể là giá trị ước lượng)", example = "100")
     private long totalElements;
     
-    @Schema(description = "Tổng số trang", example = "10")
+    @Schema(description = "Tổng số trang (-1 nếu không tính)", example = "10")
     private int totalPages;
     
     @Schema(description = "Có phải trang đầu tiên không", example = "true")
@@ -34,6 +35,10 @@ public class PagedResponse<T> {
     @Schema(description = "Trang có rỗng không", example = "false")
     private boolean empty;
     
+    @Schema(description = "Cursor để lấy trang tiếp theo ở chế độ keyset (null nếu là trang cuối)", example = "Q09ERQphCjUKR0JQ")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    
     // Constructors
     public PagedResponse() {}
     
@@ -49,6 +54,19 @@ public class PagedResponse<T> {
         this.empty = content.isEmpty();
     }
     
+    // Keyset pages have no page number; totalElements is -1 unless an estimate was requested
+    public PagedResponse(List<T> content, int size, boolean first, String nextCursor, long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalElements >= 0 ? (int) ((totalElements + size - 1) / size) : -1;
+        this.first = first;
+        this.last = nextCursor == null;
+        this.numberOfElements = content.size();
+        this.empty = content.isEmpty();
+        this.nextCursor = nextCursor;
+    }
+    
     // Getters and Setters
     public List<T> getContent() {
         return content;
@@ -125,4 +143,12 @@ public class PagedResponse<T> {
     public void setEmpty(boolean empty) {
         this.empty = empty;
     }
-} 
\ No newline at end of file
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
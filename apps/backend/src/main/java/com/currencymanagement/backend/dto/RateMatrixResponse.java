@@ -0,0 +1,52 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Ma trận tỷ giá chéo giữa tất cả các cặp tiền tệ")
+public class RateMatrixResponse {
+    
+    @Schema(description = "Danh sách mã tiền tệ theo thứ tự hàng/cột của ma trận", example = "[\"USD\", \"EUR\"]")
+    private List<String> codes;
+    
+    @Schema(description = "Số chữ số thập phân của các giá trị trong ma trận", example = "8")
+    private int scale;
+    
+    @Schema(description = "rates[i][j] là tỷ giá quy đổi từ codes[i] sang codes[j], nhân với 10^scale", example = "[[100000000, 92000000], [108695652, 100000000]]")
+    private long[][] rates;
+    
+    // Constructors
+    public RateMatrixResponse() {}
+    
+    public RateMatrixResponse(List<String> codes, int scale, long[][] rates) {
+        this.codes = codes;
+        this.scale = scale;
+        this.rates = rates;
+    }
+    
+    // Getters and Setters
+    public List<String> getCodes() {
+        return codes;
+    }
+    
+    public void setCodes(List<String> codes) {
+        this.codes = codes;
+    }
+    
+    public int getScale() {
+        return scale;
+    }
+    
+    public void setScale(int scale) {
+        this.scale = scale;
+    }
+    
+    public long[][] getRates() {
+        return rates;
+    }
+    
+    public void setRates(long[][] rates) {
+        this.rates = rates;
+    }
+}
@@ -0,0 +1,46 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Một cập nhật tỷ giá từ nguồn dữ liệu thị trường")
+public class RateTick {
+    
+    @NotBlank(message = "Mã tiền tệ không được để trống")
+    @Size(min = 3, max = 3, message = "Mã tiền tệ phải có đúng 3 ký tự")
+    @Schema(description = "Mã tiền tệ theo chuẩn ISO 4217", example = "EUR", required = true)
+    private String code;
+    
+    @NotNull(message = "Tỷ giá hối đoái không được để trống")
+    @Schema(description = "Tỷ giá hối đoái mới so với USD", example = "0.8512", required = true)
+    private BigDecimal exchangeRate;
+    
+    // Constructors
+    public RateTick() {}
+    
+    public RateTick(String code, BigDecimal exchangeRate) {
+        this.code = code;
+        this.exchangeRate = exchangeRate;
+    }
+    
+    // Getters and Setters
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public BigDecimal getExchangeRate() {
+        return exchangeRate;
+    }
+    
+    public void setExchangeRate(BigDecimal exchangeRate) {
+        this.exchangeRate = exchangeRate;
+    }
+}
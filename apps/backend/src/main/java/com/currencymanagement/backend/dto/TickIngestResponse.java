@@ -0,0 +1,76 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Kết quả tiếp nhận các cập nhật tỷ giá")
+public class TickIngestResponse {
+    
+    @Schema(description = "Số cập nhật được chấp nhận", example = "120")
+    private int accepted;
+    
+    @Schema(description = "Số cập nhật được gộp vào một cập nhật mới hơn của cùng mã tiền tệ", example = "95")
+    private int coalesced;
+    
+    @Schema(description = "Số cập nhật bị từ chối", example = "1")
+    private int rejected;
+    
+    @Schema(description = "Thời gian tối đa (ms) trước khi các cập nhật được ghi xuống cơ sở dữ liệu", example = "250")
+    private long flushIntervalMs;
+    
+    @Schema(description = "Các cập nhật bị từ chối và lý do")
+    private List<BatchItemResult> rejections;
+    
+    // Constructors
+    public TickIngestResponse() {}
+    
+    public TickIngestResponse(int accepted, int coalesced, long flushIntervalMs, List<BatchItemResult> rejections) {
+        this.accepted = accepted;
+        this.coalesced = coalesced;
+        this.rejected = rejections.size();
+        this.flushIntervalMs = flushIntervalMs;
+        this.rejections = rejections;
+    }
+    
+    // Getters and Setters
+    public int getAccepted() {
+        return accepted;
+    }
+    
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+    
+    public int getCoalesced() {
+        return coalesced;
+    }
+    
+    public void setCoalesced(int coalesced) {
+        this.coalesced = coalesced;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+    
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+    
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+    
+    public List<BatchItemResult> getRejections() {
+        return rejections;
+    }
+    
+    public void setRejections(List<BatchItemResult> rejections) {
+        this.rejections = rejections;
+    }
+}
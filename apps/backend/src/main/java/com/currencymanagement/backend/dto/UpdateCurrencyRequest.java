@@ -29,6 +29,9 @@ public class UpdateCurrencyRequest {
     @Schema(description = "Tỷ giá hối đoái so với USD", example = "0.8500", required = true)
     private BigDecimal exchangeRate;
     
+    @Schema(description = "Phiên bản tiền tệ mà client đã đọc; nếu có, cập nhật chỉ thành công khi phiên bản chưa thay đổi. Bỏ trống để ghi đè bản hiện tại", example = "3")
+    private Long version;
+    
     // Constructors
     public UpdateCurrencyRequest() {}
     
@@ -71,4 +74,12 @@ public class UpdateCurrencyRequest {
     public void setExchangeRate(BigDecimal exchangeRate) {
         this.exchangeRate = exchangeRate;
     }
-} 
\ No newline at end of file
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,47 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Dữ liệu đầu vào để cập nhật tỷ giá có điều kiện")
+public class UpdateRateRequest {
+    
+    @NotNull(message = "Tỷ giá hối đoái không được để trống")
+    @DecimalMin(value = "0", inclusive = false, message = "Tỷ giá hối đoái phải lớn hơn 0")
+    @Digits(integer = 6, fraction = 4, message = "Tỷ giá hối đoái tối đa 6 chữ số phần nguyên và 4 chữ số thập phân")
+    @Schema(description = "Tỷ giá hối đoái mới so với USD", example = "0.8512", required = true)
+    private BigDecimal exchangeRate;
+    
+    @NotNull(message = "Phiên bản không được để trống")
+    @Schema(description = "Phiên bản tiền tệ mà client đã đọc; cập nhật chỉ thành công nếu phiên bản chưa thay đổi", example = "3", required = true)
+    private Long version;
+    
+    // Constructors
+    public UpdateRateRequest() {}
+    
+    public UpdateRateRequest(BigDecimal exchangeRate, Long version) {
+        this.exchangeRate = exchangeRate;
+        this.version = version;
+    }
+    
+    // Getters and Setters
+    public BigDecimal getExchangeRate() {
+        return exchangeRate;
+    }
+    
+    public void setExchangeRate(BigDecimal exchangeRate) {
+        this.exchangeRate = exchangeRate;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,66 @@
+package com.currencymanagement.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Giá trị của một khoản nắm giữ, theo thứ tự trong request")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ValuationLine {
+    
+    @Schema(description = "Mã tiền tệ của khoản nắm giữ", example = "EUR")
+    private String code;
+    
+    @Schema(description = "Số tiền (làm tròn HALF_EVEN, 4 chữ số thập phân); không có nếu vượt quá giới hạn", example = "100.5000")
+    private BigDecimal amount;
+    
+    @Schema(description = "Giá trị theo tiền tệ đích (làm tròn HALF_EVEN, 4 chữ số thập phân); không có nếu dòng bị lỗi", example = "109.2391")
+    private BigDecimal value;
+    
+    @Schema(description = "Lý do khi dòng không định giá được", example = "Không tìm thấy tiền tệ")
+    private String error;
+    
+    // Constructors
+    public ValuationLine() {}
+    
+    public ValuationLine(String code, BigDecimal amount, BigDecimal value, String error) {
+        this.code = code;
+        this.amount = amount;
+        this.value = value;
+        this.error = error;
+    }
+    
+    // Getters and Setters
+    public String getCode() {
+        return code;
+    }
+    
+    public void setCode(String code) {
+        this.code = code;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public BigDecimal getValue() {
+        return value;
+    }
+    
+    public void setValue(BigDecimal value) {
+        this.value = value;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
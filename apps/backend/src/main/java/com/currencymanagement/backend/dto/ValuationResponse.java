@@ -0,0 +1,89 @@
+package com.currencymanagement.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Kết quả định giá danh mục nhiều tiền tệ")
+public class ValuationResponse {
+    
+    @Schema(description = "Mã tiền tệ đích", example = "USD")
+    private String target;
+    
+    @Schema(description = "Phiên bản danh mục tiền tệ có tỷ giá đã dùng cho mọi dòng", example = "42")
+    private long catalogVersion;
+    
+    @Schema(description = "Số khoản nắm giữ trong request", example = "100000")
+    private int holdings;
+    
+    @Schema(description = "Số dòng không định giá được, không tính vào tổng", example = "3")
+    private int failed;
+    
+    @Schema(description = "Tổng giá trị chính xác của các dòng hợp lệ (4 chữ số thập phân)", example = "1234567.8912")
+    private BigDecimal total;
+    
+    @Schema(description = "Giá trị từng dòng, theo thứ tự trong request")
+    private List<ValuationLine> lines;
+    
+    // Constructors
+    public ValuationResponse() {}
+    
+    public ValuationResponse(String target, long catalogVersion, int holdings, int failed, BigDecimal total, List<ValuationLine> lines) {
+        this.target = target;
+        this.catalogVersion = catalogVersion;
+        this.holdings = holdings;
+        this.failed = failed;
+        this.total = total;
+        this.lines = lines;
+    }
+    
+    // Getters and Setters
+    public String getTarget() {
+        return target;
+    }
+    
+    public void setTarget(String target) {
+        this.target = target;
+    }
+    
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+    
+    public void setCatalogVersion(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+    
+    public int getHoldings() {
+        return holdings;
+    }
+    
+    public void setHoldings(int holdings) {
+        this.holdings = holdings;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public BigDecimal getTotal() {
+        return total;
+    }
+    
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+    
+    public List<ValuationLine> getLines() {
+        return lines;
+    }
+    
+    public void setLines(List<ValuationLine> lines) {
+        this.lines = lines;
+    }
+}
@@ -2,11 +2,22 @@ package com.currencymanagement.backend.entity;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "currencies")
+@Table(name = "currencies", indexes = {
+    // Allowed sort columns, each with id as tie-breaker for keyset pagination
+    @Index(name = "idx_currencies_name_id", columnList = "name, id"),
+    @Index(name = "idx_currencies_exchange_rate_id", columnList = "exchange_rate, id"),
+    @Index(name = "idx_currencies_created_at_id", columnList = "created_at, id"),
+    // Delta sync scans rows changed after a cursor
+    @Index(name = "idx_currencies_updated_at_id", columnList = "updated_at, id")
+})
 @Schema(description = "Thông tin tiền tệ")
 public class Currency {
     
@@ -31,14 +42,23 @@ public class Currency {
     @Schema(description = "Tỷ giá hối đoái so với USD", example = "1.0000", required = true)
     private BigDecimal exchangeRate;
     
+    // Set by the database, the clock the bulk writes and the rate history use
+    @CreationTimestamp(source = SourceType.DB)
     @Column(name = "created_at")
     @Schema(description = "Thời gian tạo", example = "2023-12-01T10:30:00")
     private LocalDateTime createdAt;
     
+    @UpdateTimestamp(source = SourceType.DB)
     @Column(name = "updated_at")
     @Schema(description = "Thời gian cập nhật cuối cùng", example = "2023-12-01T10:30:00")
     private LocalDateTime updatedAt;
     
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    @Schema(description = "Phiên bản của bản ghi, tăng sau mỗi lần cập nhật (dùng cho cập nhật có điều kiện)", example = "3")
+    private Long version;
+    
     // Constructors
     public Currency() {}
     
@@ -51,6 +71,17 @@ public class Currency {
         this.updatedAt = LocalDateTime.now();
     }
     
+    public Currency(Currency other) {
+        this.id = other.id;
+        this.code = other.code;
+        this.name = other.name;
+        this.symbol = other.symbol;
+        this.exchangeRate = other.exchangeRate;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -108,15 +139,11 @@ public class Currency {
         this.updatedAt = updatedAt;
     }
     
-    @PrePersist
-    public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
-        this.createdAt = now;
-        this.updatedAt = now;
+    public Long getVersion() {
+        return version;
     }
     
-    @PreUpdate
-    public void preUpdate() {
-        this.updatedAt = LocalDateTime.now();
+    public void setVersion(Long version) {
+        this.version = version;
     }
 } 
\ No newline at end of file
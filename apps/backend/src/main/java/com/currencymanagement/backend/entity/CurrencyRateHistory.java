@@ -0,0 +1,57 @@
+package com.currencymanagement.backend.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "currency_rate_history", indexes = {
+    @Index(name = "idx_rate_history_code_effective_at", columnList = "code, effective_at")
+})
+@Schema(description = "Lịch sử tỷ giá của tiền tệ (chỉ ghi thêm)")
+public class CurrencyRateHistory {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "ID duy nhất của bản ghi lịch sử", example = "1")
+    private Long id;
+    
+    @Column(name = "code", nullable = false, length = 3, updatable = false)
+    @Schema(description = "Mã tiền tệ theo chuẩn ISO 4217", example = "EUR")
+    private String code;
+    
+    @Column(name = "exchange_rate", nullable = false, precision = 10, scale = 4, updatable = false)
+    @Schema(description = "Tỷ giá hối đoái so với USD tại thời điểm có hiệu lực", example = "0.9200")
+    private BigDecimal exchangeRate;
+    
+    @Column(name = "effective_at", nullable = false, updatable = false)
+    @Schema(description = "Thời điểm tỷ giá bắt đầu có hiệu lực", example = "2023-12-01T14:03:00")
+    private LocalDateTime effectiveAt;
+    
+    // Constructors
+    public CurrencyRateHistory() {}
+    
+    public CurrencyRateHistory(String code, BigDecimal exchangeRate, LocalDateTime effectiveAt) {
+        this.code = code;
+        this.exchangeRate = exchangeRate;
+        this.effectiveAt = effectiveAt;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public BigDecimal getExchangeRate() {
+        return exchangeRate;
+    }
+    
+    public LocalDateTime getEffectiveAt() {
+        return effectiveAt;
+    }
+}
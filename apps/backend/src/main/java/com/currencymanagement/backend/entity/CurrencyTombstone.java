@@ -0,0 +1,34 @@
+package com.currencymanagement.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a currency code that disappeared from the catalog, so delta sync can report removals.
+ * Rows are written by a database trigger on delete and on code change, never by the application.
+ */
+@Entity
+@Table(name = "currency_tombstones", indexes = {
+    @Index(name = "idx_currency_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class CurrencyTombstone {
+    
+    @Id
+    @Column(name = "code", length = 3)
+    private String code;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Constructors
+    public CurrencyTombstone() {}
+    
+    // Getters
+    public String getCode() {
+        return code;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
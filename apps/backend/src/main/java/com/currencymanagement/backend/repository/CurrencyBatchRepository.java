@@ -0,0 +1,245 @@
+package com.currencymanagement.backend.repository;
+
+import com.currencymanagement.backend.entity.Currency;
+import io.micrometer.core.annotation.Timed;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Set-based writes to the currencies table that bypass Hibernate.
+ * <p>
+ * {@code Currency} ids use {@code GenerationType.IDENTITY}, which stops Hibernate from batching
+ * inserts, so bulk upserts go through plain JDBC instead: one multi-row
+ * {@code INSERT ... ON CONFLICT (code) DO UPDATE ... RETURNING} statement per chunk,
+ * which also appends the rates that changed to {@code currency_rate_history}.
+ * <p>
+ * Every sub-statement of a {@code WITH} reads the table as it stood before the statement, so the
+ * history CTEs join {@code currencies} to get the previous rate: a row is only added when the rate
+ * is new or differs from it, never for a name- or symbol-only change.
+ * <p>
+ * Imports, where rows arrive by the thousand, skip the statement building and bind parameters
+ * altogether: rows are {@code COPY}'d into a session-local staging table and upserted from there
+ * with one {@code INSERT ... SELECT}. Rows identical to the stored ones are left untouched, so
+ * re-importing an export writes nothing.
+ */
+@Repository
+@Timed(value = "currency.repository.queries", histogram = true)
+public class CurrencyBatchRepository {
+    
+    // Appends a row for each upserted code that was inserted or whose rate differs from the previous one
+    private static final String HISTORY_OF_CHANGED_RATES =
+        " history AS (INSERT INTO currency_rate_history (code, exchange_rate, effective_at)"
+        + " SELECT u.code, u.exchange_rate, now() FROM upserted u LEFT JOIN currencies old ON old.code = u.code"
+        + " WHERE u.inserted OR old.exchange_rate IS DISTINCT FROM u.exchange_rate)";
+    
+    private static final String INSERT_PREFIX =
+        "WITH upserted AS (INSERT INTO currencies (code, name, symbol, exchange_rate, created_at, updated_at, version) VALUES ";
+    private static final String ROW_VALUES = "(?, ?, ?, ?, now(), now(), 0)";
+    private static final String UPSERT_SUFFIX =
+        " ON CONFLICT (code) DO UPDATE SET name = EXCLUDED.name, symbol = EXCLUDED.symbol,"
+        + " exchange_rate = EXCLUDED.exchange_rate, updated_at = now(), version = currencies.version + 1"
+        + " RETURNING id, code, exchange_rate, (xmax = 0) AS inserted),"
+        + HISTORY_OF_CHANGED_RATES
+        + " SELECT id, code, inserted FROM upserted";
+    
+    private static final String RATES_PREFIX = "WITH ticks (code, exchange_rate) AS (VALUES ";
+    private static final String RATE_VALUES = "(?, CAST(? AS numeric))";
+    private static final String RATES_SUFFIX =
+        "), updated AS (UPDATE currencies c SET exchange_rate = t.exchange_rate, updated_at = now(), version = c.version + 1"
+        + " FROM ticks t WHERE c.code = t.code AND c.exchange_rate <> t.exchange_rate"
+        + " RETURNING c.code, c.exchange_rate),"
+        + " history AS (INSERT INTO currency_rate_history (code, exchange_rate, effective_at)"
+        + " SELECT code, exchange_rate, now() FROM updated)"
+        + " SELECT code FROM updated";
+    
+    private static final String CONDITIONAL_RATE_UPDATE =
+        "WITH updated AS (UPDATE currencies SET exchange_rate = ?, updated_at = now(), version = version + 1"
+        + " WHERE id = ? AND version = ?"
+        + " RETURNING id, code, name, symbol, exchange_rate, created_at, updated_at, version),"
+        + " history AS (INSERT INTO currency_rate_history (code, exchange_rate, effective_at)"
+        + " SELECT u.code, u.exchange_rate, now() FROM updated u JOIN currencies old ON old.id = u.id"
+        + " WHERE old.exchange_rate <> u.exchange_rate)"
+        + " SELECT *, true AS applied FROM updated"
+        + " UNION ALL SELECT id, code, name, symbol, exchange_rate, created_at, updated_at, version, false"
+        + " FROM currencies WHERE id = ? AND NOT EXISTS (SELECT 1 FROM updated)";
+    
+    private static final String CREATE_STAGING =
+        "CREATE TEMP TABLE IF NOT EXISTS currency_import_staging (code VARCHAR(3), name VARCHAR(100),"
+        + " symbol VARCHAR(10), exchange_rate DECIMAL(10, 4)) ON COMMIT DELETE ROWS";
+    private static final String COPY_STAGING =
+        "COPY currency_import_staging (code, name, symbol, exchange_rate) FROM STDIN";
+    private static final String UPSERT_FROM_STAGING =
+        "WITH upserted AS (INSERT INTO currencies (code, name, symbol, exchange_rate, created_at, updated_at, version)"
+        + " SELECT code, name, symbol, exchange_rate, now(), now(), 0 FROM currency_import_staging"
+        + " ON CONFLICT (code) DO UPDATE SET name = EXCLUDED.name, symbol = EXCLUDED.symbol,"
+        + " exchange_rate = EXCLUDED.exchange_rate, updated_at = now(), version = currencies.version + 1"
+        + " WHERE (currencies.name, currencies.symbol, currencies.exchange_rate)"
+        + " IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.symbol, EXCLUDED.exchange_rate)"
+        + " RETURNING code, exchange_rate, (xmax = 0) AS inserted),"
+        + HISTORY_OF_CHANGED_RATES
+        + " SELECT count(*) FILTER (WHERE inserted) AS inserted, count(*) FILTER (WHERE NOT inserted) AS updated"
+        + " FROM upserted";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Upserts rows keyed by code. Codes must be unique within one call.
+     *
+     * @return the outcome of each row, keyed by code
+     */
+    public Map<String, UpsertOutcome> upsertByCode(List<Row> rows, int chunkSize) {
+        Map<String, UpsertOutcome> outcomes = new HashMap<>(rows.size() * 2);
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            List<Row> chunk = rows.subList(start, Math.min(rows.size(), start + chunkSize));
+            
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW_VALUES.length() + 2)
+                + UPSERT_SUFFIX.length());
+            sql.append(INSERT_PREFIX);
+            List<Object> args = new ArrayList<>(chunk.size() * 4);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(ROW_VALUES);
+                Row row = chunk.get(i);
+                args.add(row.code());
+                args.add(row.name());
+                args.add(row.symbol());
+                args.add(row.exchangeRate());
+            }
+            sql.append(UPSERT_SUFFIX);
+            
+            jdbcTemplate.query(sql.toString(), rs -> {
+                outcomes.put(rs.getString("code"), new UpsertOutcome(rs.getLong("id"), rs.getBoolean("inserted")));
+            }, args.toArray());
+        }
+        return outcomes;
+    }
+    
+    /**
+     * Upserts rows keyed by code through {@code COPY} and a staging table. Codes must be unique within
+     * one call. Must run inside a transaction, which empties the staging table on commit.
+     *
+     * @return how many rows were inserted and updated; the others were unchanged
+     */
+    public CopyUpsertCounts copyUpsertByCode(Collection<Row> rows) {
+        StringBuilder data = new StringBuilder(rows.size() * 48);
+        for (Row row : rows) {
+            appendCopyField(data, row.code()).append('\t');
+            appendCopyField(data, row.name()).append('\t');
+            appendCopyField(data, row.symbol()).append('\t');
+            data.append(row.exchangeRate().toPlainString()).append('\n');
+        }
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(COPY_STAGING, new StringReader(data.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return jdbcTemplate.queryForObject(UPSERT_FROM_STAGING,
+            (rs, rowNum) -> new CopyUpsertCounts(rs.getLong("inserted"), rs.getLong("updated")));
+    }
+    
+    /**
+     * Escapes a value for the text format of {@code COPY}.
+     */
+    private static StringBuilder appendCopyField(StringBuilder data, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> data.append("\\\\");
+                case '\t' -> data.append("\\t");
+                case '\n' -> data.append("\\n");
+                case '\r' -> data.append("\\r");
+                default -> data.append(c);
+            }
+        }
+        return data;
+    }
+    
+    /**
+     * Sets the exchange rate of existing currencies, one {@code UPDATE ... FROM (VALUES ...)} per chunk.
+     * Unknown codes and unchanged rates are skipped.
+     *
+     * @return the codes whose rate changed
+     */
+    public List<String> updateRates(Map<String, BigDecimal> rates, int chunkSize) {
+        List<Map.Entry<String, BigDecimal>> entries = new ArrayList<>(rates.entrySet());
+        // A fixed row order keeps concurrent flushes from deadlocking on each other's row locks
+        entries.sort(Map.Entry.comparingByKey());
+        List<String> updated = new ArrayList<>(entries.size());
+        for (int start = 0; start < entries.size(); start += chunkSize) {
+            List<Map.Entry<String, BigDecimal>> chunk = entries.subList(start, Math.min(entries.size(), start + chunkSize));
+            
+            StringBuilder sql = new StringBuilder(RATES_PREFIX.length() + chunk.size() * (RATE_VALUES.length() + 2)
+                + RATES_SUFFIX.length());
+            sql.append(RATES_PREFIX);
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(RATE_VALUES);
+                args[i * 2] = chunk.get(i).getKey();
+                args[i * 2 + 1] = chunk.get(i).getValue();
+            }
+            sql.append(RATES_SUFFIX);
+            
+            updated.addAll(jdbcTemplate.queryForList(sql.toString(), String.class, args));
+        }
+        return updated;
+    }
+    
+    /**
+     * Sets the exchange rate of currency {@code id} only if it is still at {@code expectedVersion}.
+     * The check, the update, the version bump and the history row take a single round trip; when the
+     * version does not match, the same statement returns the row as it currently stands instead.
+     *
+     * @return the outcome, or empty when no currency has this id
+     */
+    public Optional<RateUpdate> updateRateIfVersion(long id, long expectedVersion, BigDecimal exchangeRate) {
+        List<RateUpdate> rows = jdbcTemplate.query(CONDITIONAL_RATE_UPDATE, (rs, rowNum) -> {
+            Currency currency = new Currency();
+            currency.setId(rs.getLong("id"));
+            currency.setCode(rs.getString("code"));
+            currency.setName(rs.getString("name"));
+            currency.setSymbol(rs.getString("symbol"));
+            currency.setExchangeRate(rs.getBigDecimal("exchange_rate"));
+            currency.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+            currency.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+            currency.setVersion(rs.getLong("version"));
+            return new RateUpdate(currency, rs.getBoolean("applied"));
+        }, exchangeRate, id, expectedVersion, id);
+        return rows.stream().findFirst();
+    }
+    
+    public record Row(String code, String name, String symbol, BigDecimal exchangeRate) {}
+    
+    public record UpsertOutcome(long id, boolean inserted) {}
+    
+    public record CopyUpsertCounts(long inserted, long updated) {}
+    
+    /**
+     * @param currency the row after the update, or the current row when {@code applied} is false
+     */
+    public record RateUpdate(Currency currency, boolean applied) {}
+}
@@ -0,0 +1,99 @@
+package com.currencymanagement.backend.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Persisted OHLC candles in {@code currency_candles}, keyed by code, interval and bucket start.
+ * <p>
+ * Writes merge with the stored candle instead of replacing it, so the same bucket can be written
+ * by several instances, or again after a restart, without losing ticks: the earliest open and the
+ * latest close win, high and low widen. Writing the same candle twice changes nothing.
+ */
+@Repository
+@Timed(value = "currency.repository.queries", histogram = true)
+public class CurrencyCandleRepository {
+    
+    private static final String UPSERT =
+        "INSERT INTO currency_candles (code, resolution, bucket_start, open_rate, high_rate, low_rate, close_rate,"
+        + " open_at, close_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"
+        + " ON CONFLICT (code, resolution, bucket_start) DO UPDATE SET"
+        + " open_rate = CASE WHEN EXCLUDED.open_at < currency_candles.open_at"
+        + " THEN EXCLUDED.open_rate ELSE currency_candles.open_rate END,"
+        + " open_at = LEAST(EXCLUDED.open_at, currency_candles.open_at),"
+        + " high_rate = GREATEST(EXCLUDED.high_rate, currency_candles.high_rate),"
+        + " low_rate = LEAST(EXCLUDED.low_rate, currency_candles.low_rate),"
+        + " close_rate = CASE WHEN EXCLUDED.close_at >= currency_candles.close_at"
+        + " THEN EXCLUDED.close_rate ELSE currency_candles.close_rate END,"
+        + " close_at = GREATEST(EXCLUDED.close_at, currency_candles.close_at)";
+    
+    private static final String SELECT_RANGE =
+        "SELECT code, resolution, bucket_start, open_rate, high_rate, low_rate, close_rate, open_at, close_at"
+        + " FROM currency_candles WHERE code = ? AND resolution = ? AND bucket_start BETWEEN ? AND ?"
+        + " ORDER BY bucket_start";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Merges {@code candles} into the stored ones in a single batch.
+     */
+    public void upsert(List<Candle> candles) {
+        jdbcTemplate.batchUpdate(UPSERT, candles, candles.size(), (ps, candle) -> {
+            ps.setString(1, candle.code());
+            ps.setString(2, candle.interval());
+            ps.setObject(3, candle.bucketStart());
+            ps.setBigDecimal(4, candle.open());
+            ps.setBigDecimal(5, candle.high());
+            ps.setBigDecimal(6, candle.low());
+            ps.setBigDecimal(7, candle.close());
+            ps.setObject(8, candle.openAt());
+            ps.setObject(9, candle.closeAt());
+        });
+    }
+    
+    /**
+     * Returns the candles of one code and interval starting within {@code [from, to]}, oldest first.
+     */
+    public List<Candle> findRange(String code, String interval, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_RANGE, (rs, rowNum) -> new Candle(
+            rs.getString("code"),
+            rs.getString("resolution"),
+            rs.getObject("bucket_start", LocalDateTime.class),
+            rs.getBigDecimal("open_rate"),
+            rs.getBigDecimal("high_rate"),
+            rs.getBigDecimal("low_rate"),
+            rs.getBigDecimal("close_rate"),
+            rs.getObject("open_at", LocalDateTime.class),
+            rs.getObject("close_at", LocalDateTime.class)), code, interval, from, to);
+    }
+    
+    /**
+     * @param openAt  time of the first tick in the bucket, which set {@code open}
+     * @param closeAt time of the last tick in the bucket, which set {@code close}
+     */
+    public record Candle(String code, String interval, LocalDateTime bucketStart, BigDecimal open, BigDecimal high,
+                         BigDecimal low, BigDecimal close, LocalDateTime openAt, LocalDateTime closeAt) {
+        
+        /**
+         * Combines two candles of the same bucket, with the same rules as {@link #upsert}.
+         */
+        public Candle merge(Candle other) {
+            boolean otherOpensFirst = other.openAt.isBefore(openAt);
+            boolean otherClosesLast = !other.closeAt.isBefore(closeAt);
+            return new Candle(code, interval, bucketStart,
+                otherOpensFirst ? other.open : open,
+                high.max(other.high),
+                low.min(other.low),
+                otherClosesLast ? other.close : close,
+                otherOpensFirst ? other.openAt : openAt,
+                otherClosesLast ? other.closeAt : closeAt);
+        }
+    }
+}
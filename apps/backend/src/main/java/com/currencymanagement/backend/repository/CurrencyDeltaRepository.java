@@ -0,0 +1,80 @@
+package com.currencymanagement.backend.repository;
+
+import com.currencymanagement.backend.entity.Currency;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queries behind delta sync: currencies changed after a {@code (updated_at, id)} position, read as a
+ * range scan of {@code idx_currencies_updated_at_id}, and the codes removed since a point in time.
+ * <p>
+ * Times are compared with the database clock only, since {@code updated_at} and tombstones are
+ * stamped by triggers.
+ */
+@Repository
+@Timed(value = "currency.repository.queries", histogram = true)
+public class CurrencyDeltaRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Start time of the current transaction on the database clock.
+     */
+    public LocalDateTime currentTimestamp() {
+        return (LocalDateTime) entityManager.createNativeQuery("SELECT LOCALTIMESTAMP", LocalDateTime.class)
+            .getSingleResult();
+    }
+    
+    /**
+     * Returns up to {@code limit} currencies ordered by {@code (updatedAt, id)}, strictly after the
+     * given position, or from the start when {@code afterUpdatedAt} is null.
+     */
+    public List<Currency> findChangedAfter(LocalDateTime afterUpdatedAt, long afterId, int limit) {
+        String jpql = afterUpdatedAt != null
+            ? "SELECT c FROM Currency c WHERE (c.updatedAt, c.id) > (:updatedAt, :id) ORDER BY c.updatedAt, c.id"
+            : "SELECT c FROM Currency c ORDER BY c.updatedAt, c.id";
+        TypedQuery<Currency> query = entityManager.createQuery(jpql, Currency.class);
+        if (afterUpdatedAt != null) {
+            query.setParameter("updatedAt", afterUpdatedAt);
+            query.setParameter("id", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+    
+    /**
+     * Returns the codes deleted within {@code (after, upTo]} that are not in the catalog again.
+     *
+     * @param upTo inclusive upper bound, or null for no bound
+     */
+    public List<String> findDeletedCodes(LocalDateTime after, LocalDateTime upTo) {
+        String jpql = "SELECT t.code FROM CurrencyTombstone t WHERE t.deletedAt > :after"
+            + (upTo != null ? " AND t.deletedAt <= :upTo" : "")
+            // A code deleted and created again is delivered as a change instead
+            + " AND NOT EXISTS (SELECT 1 FROM Currency c WHERE c.code = t.code)"
+            + " ORDER BY t.deletedAt, t.code";
+        TypedQuery<String> query = entityManager.createQuery(jpql, String.class)
+            .setParameter("after", after);
+        if (upTo != null) {
+            query.setParameter("upTo", upTo);
+        }
+        return query.getResultList();
+    }
+    
+    /**
+     * Deletes tombstones older than {@code cutoff}; must run inside a transaction.
+     *
+     * @return the number of tombstones deleted
+     */
+    public int deleteTombstonesBefore(LocalDateTime cutoff) {
+        return entityManager.createQuery("DELETE FROM CurrencyTombstone t WHERE t.deletedAt < :cutoff")
+            .setParameter("cutoff", cutoff)
+            .executeUpdate();
+    }
+}
@@ -0,0 +1,50 @@
+package com.currencymanagement.backend.repository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+/**
+ * Full-table reads for export that never hold more than one fetch of rows in memory.
+ * <p>
+ * The PostgreSQL driver only reads through a server-side cursor when a fetch size is set and
+ * auto-commit is off, so callers must run these inside a transaction; otherwise the whole result
+ * set is buffered by the driver.
+ */
+@Repository
+@Timed(value = "currency.repository.queries", histogram = true)
+public class CurrencyExportRepository {
+    
+    private static final String CURRENCIES =
+        "SELECT id, code, name, symbol, exchange_rate, created_at, updated_at, version FROM currencies ORDER BY id";
+    private static final String RATE_HISTORY =
+        "SELECT id, code, exchange_rate, effective_at FROM currency_rate_history ORDER BY id";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Value("${currency.export.fetch-size:1000}")
+    private int fetchSize;
+    
+    private JdbcTemplate cursorTemplate;
+    
+    @PostConstruct
+    void createCursorTemplate() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+    }
+    
+    public <T> T streamCurrencies(ResultSetExtractor<T> extractor) {
+        return cursorTemplate.query(CURRENCIES, extractor);
+    }
+    
+    public <T> T streamRateHistory(ResultSetExtractor<T> extractor) {
+        return cursorTemplate.query(RATE_HISTORY, extractor);
+    }
+}
@@ -0,0 +1,71 @@
+package com.currencymanagement.backend.repository;
+
+import com.currencymanagement.backend.entity.Currency;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Keyset ("seek") pagination over currencies.
+ * <p>
+ * Pages continue strictly after the last {@code (sortValue, id)} pair seen, so each page is a
+ * range scan of the matching {@code (column, id)} index no matter how deep it is, and no count
+ * query is issued.
+ */
+@Repository
+@Timed(value = "currency.repository.queries", histogram = true)
+public class CurrencyKeysetRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Returns up to {@code limit} currencies ordered by {@code property} then id.
+     * The property name must come from a whitelist; it is inlined into the query.
+     *
+     * @param afterValue sort value of the last row of the previous page, ignored when {@code afterId} is null
+     * @param afterId id of the last row of the previous page, or null for the first page
+     */
+    public List<Currency> findPage(String property, boolean descending, Object afterValue, Long afterId, int limit) {
+        String direction = descending ? " DESC" : " ASC";
+        String comparison = descending ? " < " : " > ";
+        boolean byId = property.equals("id");
+        
+        StringBuilder jpql = new StringBuilder("SELECT c FROM Currency c");
+        if (afterId != null) {
+            if (byId) {
+                jpql.append(" WHERE c.id").append(comparison).append(":id");
+            } else {
+                jpql.append(" WHERE (c.").append(property).append(", c.id)").append(comparison).append("(:value, :id)");
+            }
+        }
+        jpql.append(" ORDER BY c.").append(property).append(direction);
+        if (!byId) {
+            jpql.append(", c.id").append(direction);
+        }
+        
+        TypedQuery<Currency> query = entityManager.createQuery(jpql.toString(), Currency.class);
+        if (afterId != null) {
+            query.setParameter("id", afterId);
+            if (!byId) {
+                query.setParameter("value", afterValue);
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+    
+    /**
+     * Planner row estimate for the currencies table; cheap, but only as fresh as the last ANALYZE.
+     * Returns -1 if the table has never been analyzed.
+     */
+    public long estimateCount() {
+        Number estimate = (Number) entityManager
+            .createNativeQuery("SELECT reltuples FROM pg_class WHERE oid = 'currencies'::regclass")
+            .getSingleResult();
+        return Math.max(-1L, estimate.longValue());
+    }
+}
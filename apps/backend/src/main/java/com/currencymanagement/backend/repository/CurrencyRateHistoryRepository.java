@@ -0,0 +1,20 @@
+package com.currencymanagement.backend.repository;
+
+import com.currencymanagement.backend.entity.CurrencyRateHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CurrencyRateHistoryRepository extends JpaRepository<CurrencyRateHistory, Long> {
+    // Both queries are served by idx_rate_history_code_effective_at (code, effective_at)
+    Optional<CurrencyRateHistory> findFirstByCodeAndEffectiveAtLessThanEqualOrderByEffectiveAtDesc(
+            String code, LocalDateTime asOf);
+    
+    List<CurrencyRateHistory> findByCodeAndEffectiveAtBetweenOrderByEffectiveAtAsc(
+            String code, LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
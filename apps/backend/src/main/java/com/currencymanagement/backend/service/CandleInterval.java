@@ -0,0 +1,57 @@
+package com.currencymanagement.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Bucket lengths of OHLC candles. Buckets are aligned to the epoch in server local time,
+ * so daily candles run from midnight to midnight.
+ */
+public enum CandleInterval {
+
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("1d", Duration.ofDays(1));
+
+    private final String parameter;
+    private final Duration length;
+
+    CandleInterval(String parameter, Duration length) {
+        this.parameter = parameter;
+        this.length = length;
+    }
+
+    /**
+     * Value of the {@code interval} request parameter, also stored with persisted candles.
+     */
+    public String getParameter() {
+        return parameter;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    /**
+     * Start of the bucket containing {@code time}.
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        long seconds = length.getSeconds();
+        long epochSecond = time.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, seconds) * seconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the interval for an {@code interval} value, or {@code null} if it is not supported.
+     */
+    public static CandleInterval fromParameter(String parameter) {
+        for (CandleInterval interval : values()) {
+            if (interval.parameter.equals(parameter)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+}
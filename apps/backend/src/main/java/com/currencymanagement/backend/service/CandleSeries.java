@@ -0,0 +1,128 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.repository.CurrencyCandleRepository.Candle;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The in-memory candles of one currency at one interval, keyed by bucket start.
+ * <p>
+ * Each tick updates its bucket in place. Buckets changed since they were last persisted are marked
+ * unpersisted until {@link #takeUnpersisted} hands them out, and only persisted buckets are evicted.
+ */
+final class CandleSeries {
+
+    private final String code;
+    private final CandleInterval interval;
+    private final TreeMap<LocalDateTime, Bucket> buckets = new TreeMap<>();
+
+    CandleSeries(String code, CandleInterval interval) {
+        this.code = code;
+        this.interval = interval;
+    }
+
+    CandleInterval interval() {
+        return interval;
+    }
+
+    synchronized void record(BigDecimal rate, LocalDateTime at) {
+        Bucket bucket = buckets.get(interval.bucketStart(at));
+        if (bucket == null) {
+            buckets.put(interval.bucketStart(at), new Bucket(rate, at));
+            return;
+        }
+        // Ticks from other instances may arrive slightly out of order
+        if (at.isBefore(bucket.openAt)) {
+            bucket.open = rate;
+            bucket.openAt = at;
+        }
+        if (!at.isBefore(bucket.closeAt)) {
+            bucket.close = rate;
+            bucket.closeAt = at;
+        }
+        bucket.high = bucket.high.max(rate);
+        bucket.low = bucket.low.min(rate);
+        bucket.persisted = false;
+    }
+
+    /**
+     * Returns the candles starting within {@code [from, to]}, oldest first.
+     */
+    synchronized List<Candle> range(LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        List<Candle> candles = new ArrayList<>();
+        buckets.subMap(from, true, to, true).forEach((start, bucket) -> candles.add(bucket.toCandle(start)));
+        return candles;
+    }
+
+    /**
+     * Returns the unpersisted candles starting before {@code before} and marks them persisted.
+     */
+    synchronized List<Candle> takeUnpersisted(LocalDateTime before) {
+        List<Candle> candles = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, Bucket> entry : buckets.headMap(before, false).entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (!bucket.persisted) {
+                bucket.persisted = true;
+                candles.add(bucket.toCandle(entry.getKey()));
+            }
+        }
+        return candles;
+    }
+
+    /**
+     * Marks candles handed out by {@link #takeUnpersisted} as unpersisted again, after a failed write.
+     */
+    synchronized void restoreUnpersisted(List<Candle> candles) {
+        for (Candle candle : candles) {
+            Bucket bucket = buckets.get(candle.bucketStart());
+            if (bucket != null) {
+                bucket.persisted = false;
+            }
+        }
+    }
+
+    /**
+     * Drops persisted buckets starting before {@code horizon}.
+     */
+    synchronized void evictBefore(LocalDateTime horizon) {
+        Iterator<Bucket> older = buckets.headMap(horizon, false).values().iterator();
+        while (older.hasNext()) {
+            if (older.next().persisted) {
+                older.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return buckets.size();
+    }
+
+    private final class Bucket {
+
+        private BigDecimal open;
+        private BigDecimal high;
+        private BigDecimal low;
+        private BigDecimal close;
+        private LocalDateTime openAt;
+        private LocalDateTime closeAt;
+        private boolean persisted;
+
+        private Bucket(BigDecimal rate, LocalDateTime at) {
+            open = high = low = close = rate;
+            openAt = closeAt = at;
+        }
+
+        private Candle toCandle(LocalDateTime start) {
+            return new Candle(code, interval.getParameter(), start, open, high, low, close, openAt, closeAt);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.currencymanagement.backend.service;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.currencymanagement.backend.entity.Currency;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response bodies of {@code GET /api/currencies} and {@code GET /api/currencies/{code}}, serialized
+ * and compressed ahead of the requests that send them.
+ * <p>
+ * Bodies are derived from the current {@link CurrencySnapshot} and kept until the snapshot is
+ * replaced, so every catalog change costs one serialization and one compression per body, and the
+ * requests in between only write bytes. The list is encoded on its first request after a change,
+ * a single currency on the first lookup of its code.
+ * <p>
+ * Bodies smaller than {@code currency.response-cache.min-compress-bytes} are kept uncompressed only.
+ * Brotli needs the native brotli4j library; where it cannot be loaded only gzip is offered.
+ * <p>
+ * The list is also kept in the {@link CurrencyBinaryEncoder} format, with and without metadata,
+ * uncompressed: it is small, and its consumers poll too often to spend time inflating it.
+ */
+@Component
+public class CatalogResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogResponseCache.class);
+
+    public static final String GZIP = "gzip";
+    public static final String BROTLI = "br";
+
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${currency.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${currency.response-cache.min-compress-bytes:1024}")
+    private int minCompressBytes;
+
+    @Value("${currency.response-cache.gzip-level:9}")
+    private int gzipLevel;
+
+    @Value("${currency.response-cache.brotli-quality:9}")
+    private int brotliQuality;
+
+    private final AtomicReference<CatalogBodies> current = new AtomicReference<>();
+    private final LongAdder encodedBodies = new LongAdder();
+    private final CurrencyBinaryEncoder binaryEncoder = new CurrencyBinaryEncoder();
+    private boolean brotliAvailable;
+
+    @PostConstruct
+    void loadBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            brotliAvailable = true;
+        } catch (Throwable e) {
+            log.warn("Brotli native library unavailable, catalog responses are offered with gzip only: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the bodies for the current snapshot, or {@code null} when there is no snapshot to
+     * derive them from (caching disabled, or the last rebuild failed).
+     */
+    public CatalogBodies current() {
+        CurrencySnapshot snapshot = enabled ? snapshotCache.get() : null;
+        if (snapshot == null) {
+            return null;
+        }
+        return current.updateAndGet(bodies ->
+            bodies != null && bodies.snapshot == snapshot ? bodies : new CatalogBodies(snapshot));
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header admits {@code coding}, honouring {@code q=0} exclusions.
+     */
+    public static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean allowed = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        allowed = Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        allowed = false;
+                    }
+                }
+            }
+            if (name.equals(coding)) {
+                return allowed;
+            }
+            if (name.equals("*")) {
+                wildcard = allowed;
+            }
+        }
+        return wildcard;
+    }
+
+    private EncodedBody encode(Object value) {
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize catalog response", e);
+        }
+        encodedBodies.increment();
+        if (identity.length < minCompressBytes) {
+            return new EncodedBody(identity, null, null);
+        }
+        return new EncodedBody(identity, gzip(identity), brotliAvailable ? brotli(identity) : null);
+    }
+
+    private byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        // GZIPOutputStream has no level parameter, its deflater is only reachable from a subclass
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(gzipLevel);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] brotli(byte[] data) {
+        try {
+            return Encoder.compress(data, new Encoder.Parameters().setQuality(brotliQuality).setMode(Encoder.Mode.TEXT));
+        } catch (IOException e) {
+            log.warn("Brotli compression failed, serving gzip only: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private EncodedBody encodeBinary(CurrencySnapshot snapshot, boolean metadata) {
+        byte[] body;
+        synchronized (binaryEncoder) {
+            ByteBuffer encoded = binaryEncoder.encode(snapshot, metadata);
+            body = new byte[encoded.remaining()];
+            encoded.get(body);
+        }
+        encodedBodies.increment();
+        return new EncodedBody(body, null, null);
+    }
+
+    public boolean isBrotliAvailable() {
+        return brotliAvailable;
+    }
+
+    public long getEncodedBodyCount() {
+        return encodedBodies.sum();
+    }
+
+    /**
+     * The encoded bodies of one snapshot, filled in lazily.
+     */
+    public final class CatalogBodies {
+
+        private final CurrencySnapshot snapshot;
+        private final Map<String, EncodedBody> byCode = new ConcurrentHashMap<>();
+        private volatile EncodedBody all;
+        private volatile EncodedBody binary;
+        private volatile EncodedBody binaryWithMetadata;
+
+        private CatalogBodies(CurrencySnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public EncodedBody all() {
+            EncodedBody body = all;
+            if (body == null) {
+                synchronized (this) {
+                    body = all;
+                    if (body == null) {
+                        body = encode(snapshot.getCurrencies());
+                        all = body;
+                    }
+                }
+            }
+            return body;
+        }
+
+        /**
+         * Returns the list in the binary format, with names, symbols and ids when {@code metadata} is set.
+         *
+         * @throws IllegalArgumentException if a code cannot be packed into the format
+         */
+        public EncodedBody binary(boolean metadata) {
+            EncodedBody body = metadata ? binaryWithMetadata : binary;
+            if (body == null) {
+                synchronized (this) {
+                    body = metadata ? binaryWithMetadata : binary;
+                    if (body == null) {
+                        body = encodeBinary(snapshot, metadata);
+                        if (metadata) {
+                            binaryWithMetadata = body;
+                        } else {
+                            binary = body;
+                        }
+                    }
+                }
+            }
+            return body;
+        }
+
+        public long version() {
+            return snapshot.getVersion();
+        }
+
+        /**
+         * Returns the body for one currency, or {@code null} if the code is not in the catalog.
+         */
+        public EncodedBody byCode(String code) {
+            Currency currency = snapshot.findByCode(code);
+            if (currency == null) {
+                return null;
+            }
+            return byCode.computeIfAbsent(code, key -> encode(currency));
+        }
+    }
+
+    /**
+     * One response body in every coding it is available in. Compressed variants are {@code null}
+     * when not worth producing or not supported.
+     */
+    public record EncodedBody(byte[] identity, byte[] gzip, byte[] brotli) {}
+}
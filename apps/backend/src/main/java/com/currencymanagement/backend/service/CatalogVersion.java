@@ -0,0 +1,39 @@
+package com.currencymanagement.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of the currency catalog, bumped after every committed write.
+ * <p>
+ * The version is exposed as a strong ETag. It is prefixed with the instance's start time so
+ * that a tag issued before a restart can never match the restarted counter.
+ */
+@Component
+public class CatalogVersion {
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile String eTag = format(1);
+    
+    public long get() {
+        return version.get();
+    }
+    
+    public String getETag() {
+        return eTag;
+    }
+    
+    /**
+     * Bumps the version now. Called by {@link CurrencySnapshotCache} only, together with the
+     * snapshot swap, so the snapshot and the version always describe the same catalog.
+     */
+    public synchronized void increment() {
+        eTag = format(version.incrementAndGet());
+    }
+    
+    private String format(long value) {
+        return "\"" + epoch + "-" + value + "\"";
+    }
+}
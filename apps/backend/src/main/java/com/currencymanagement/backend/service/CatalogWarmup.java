@@ -0,0 +1,74 @@
+package com.currencymanagement.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the rate data before the instance reports itself ready, so the first request routed to a
+ * new instance is served from memory instead of paying for the snapshot query, the encoding of
+ * the catalog bodies or the search index.
+ * <p>
+ * Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, which turns
+ * {@code /actuator/health/readiness} UP, only after every {@link ApplicationRunner} has returned.
+ * A failure here fails the startup: an instance that cannot load the rates should not take traffic.
+ */
+@Component
+public class CatalogWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+
+    @Autowired
+    private CatalogResponseCache responseCache;
+
+    @Autowired
+    private CrossRateService crossRateService;
+
+    @Autowired
+    private CurrencySearchService searchService;
+
+    @Value("${currency.warmup.enabled:true}")
+    private boolean enabled;
+
+    private volatile long durationMillis = -1;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        CurrencySnapshot snapshot = snapshotCache.get();
+        CatalogResponseCache.CatalogBodies bodies = responseCache.current();
+        if (bodies != null) {
+            bodies.all();
+            try {
+                bodies.binary(false);
+            } catch (IllegalArgumentException e) {
+                // Not every catalog fits the binary format; those requests get 406 anyway
+            }
+        }
+        crossRateService.getMatrixResponse();
+        searchService.currentIndex();
+        durationMillis = (System.nanoTime() - start) / 1_000_000;
+        if (snapshot != null) {
+            log.info("Rate data warmed in {} ms ({} currencies)", durationMillis, snapshot.getCurrencies().size());
+        } else {
+            log.info("Rate data warmed in {} ms (snapshot cache disabled)", durationMillis);
+        }
+    }
+
+    /**
+     * Time the warm-up took, or {@code -1} if it has not run.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
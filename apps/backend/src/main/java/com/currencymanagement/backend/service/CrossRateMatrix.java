@@ -0,0 +1,165 @@
+package com.currencymanagement.backend.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable dense N×N matrix of cross rates, stored row-major in a single {@code long[]}.
+ * <p>
+ * Cell {@code (i, j)} holds the rate converting currency {@code i} into currency {@code j},
+ * unscaled at {@link RateTable#CROSS_RATE_SCALE} places. Ordinals are assigned by the matrix
+ * itself and stay stable across updates, so a changed currency keeps its row and column.
+ * <p>
+ * {@link #update(RateTable)} derives a new matrix from this one: cells are copied and only the
+ * rows and columns of currencies whose rate changed, or which were added, are recomputed.
+ * Removing a currency falls back to a full rebuild so the ordinals stay compact.
+ */
+public final class CrossRateMatrix {
+
+    private final String[] codes;
+    private final long[] rates;
+    private final long[] cells;
+    private final Map<String, Integer> ordinals;
+
+    private CrossRateMatrix(String[] codes, long[] rates, long[] cells) {
+        this.codes = codes;
+        this.rates = rates;
+        this.cells = cells;
+        this.ordinals = new HashMap<>(codes.length * 2);
+        for (int i = 0; i < codes.length; i++) {
+            ordinals.put(codes[i], i);
+        }
+    }
+
+    /**
+     * Builds a matrix from scratch, computing every cell.
+     */
+    public static CrossRateMatrix build(RateTable table) {
+        int n = table.size();
+        String[] codes = new String[n];
+        long[] rates = new long[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = table.codeAt(i);
+            rates[i] = table.rateAt(i);
+        }
+        long[] cells = new long[n * n];
+        for (int i = 0; i < n; i++) {
+            computeRow(cells, rates, n, i);
+        }
+        return new CrossRateMatrix(codes, rates, cells);
+    }
+
+    /**
+     * Returns a matrix reflecting {@code table}, reusing every cell whose inputs did not change.
+     * Returns {@code this} when nothing changed.
+     */
+    public CrossRateMatrix update(RateTable table) {
+        int n = codes.length;
+        for (String code : codes) {
+            if (table.indexOf(code) < 0) {
+                return build(table);
+            }
+        }
+
+        int size = table.size();
+        String[] newCodes = Arrays.copyOf(codes, size);
+        long[] newRates = Arrays.copyOf(rates, size);
+        boolean[] dirty = new boolean[size];
+        boolean changed = false;
+
+        for (int i = 0; i < n; i++) {
+            long rate = table.rateAt(table.indexOf(codes[i]));
+            if (rate != rates[i]) {
+                newRates[i] = rate;
+                dirty[i] = true;
+                changed = true;
+            }
+        }
+        int next = n;
+        for (int t = 0; t < size; t++) {
+            String code = table.codeAt(t);
+            if (!ordinals.containsKey(code)) {
+                newCodes[next] = code;
+                newRates[next] = table.rateAt(t);
+                dirty[next] = true;
+                next++;
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return this;
+        }
+
+        long[] newCells;
+        if (size == n) {
+            newCells = cells.clone();
+        } else {
+            newCells = new long[size * size];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(cells, i * n, newCells, i * size, n);
+            }
+        }
+        for (int c = 0; c < size; c++) {
+            if (dirty[c]) {
+                computeRow(newCells, newRates, size, c);
+                computeColumn(newCells, newRates, size, c);
+            }
+        }
+        return new CrossRateMatrix(newCodes, newRates, newCells);
+    }
+
+    private static void computeRow(long[] cells, long[] rates, int n, int row) {
+        long rateFrom = rates[row];
+        int offset = row * n;
+        for (int j = 0; j < n; j++) {
+            cells[offset + j] = RateTable.crossRate(rateFrom, rates[j]);
+        }
+    }
+
+    private static void computeColumn(long[] cells, long[] rates, int n, int column) {
+        long rateTo = rates[column];
+        for (int i = 0; i < n; i++) {
+            cells[i * n + column] = RateTable.crossRate(rates[i], rateTo);
+        }
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Returns the ordinal of the given ISO code, or {@code -1} if the matrix does not contain it.
+     */
+    public int indexOf(String code) {
+        Integer ordinal = ordinals.get(code);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public String codeAt(int ordinal) {
+        return codes[ordinal];
+    }
+
+    /**
+     * Cross rate from one ordinal to another, unscaled at {@link RateTable#CROSS_RATE_SCALE} places.
+     */
+    public long crossRate(int from, int to) {
+        return cells[from * codes.length + to];
+    }
+
+    /**
+     * Copies the matrix into one {@code long[]} per row.
+     */
+    public long[][] toRows() {
+        int n = codes.length;
+        long[][] rows = new long[n][];
+        for (int i = 0; i < n; i++) {
+            rows[i] = Arrays.copyOfRange(cells, i * n, (i + 1) * n);
+        }
+        return rows;
+    }
+
+    public String[] getCodes() {
+        return codes.clone();
+    }
+}
@@ -0,0 +1,88 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.RateMatrixResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a {@link CrossRateMatrix} in step with the current {@link RateTable}.
+ * <p>
+ * The matrix is brought up to date lazily: when a read finds that the rate table has been
+ * replaced since the last sync, the matrix is updated incrementally from it. The response body
+ * for the matrix endpoint is built once per matrix and shared by all requests.
+ */
+@Service
+public class CrossRateService {
+    
+    @Autowired
+    private CurrencyConversionService conversionService;
+    
+    private volatile State state;
+    
+    /**
+     * Returns the cross-rate matrix for the current rates.
+     */
+    public CrossRateMatrix getMatrix() {
+        return currentState().matrix;
+    }
+    
+    /**
+     * Returns the cross rate between two ISO codes, unscaled at {@link RateTable#CROSS_RATE_SCALE}
+     * places, or {@code -1} if either code is unknown.
+     */
+    public long getCrossRate(String from, String to) {
+        CrossRateMatrix matrix = getMatrix();
+        int fromIndex = matrix.indexOf(from);
+        int toIndex = matrix.indexOf(to);
+        if (fromIndex < 0 || toIndex < 0) {
+            return -1;
+        }
+        return matrix.crossRate(fromIndex, toIndex);
+    }
+    
+    public RateMatrixResponse getMatrixResponse() {
+        State current = currentState();
+        RateMatrixResponse response = current.response;
+        if (response == null) {
+            CrossRateMatrix matrix = current.matrix;
+            response = new RateMatrixResponse(
+                Arrays.asList(matrix.getCodes()), RateTable.CROSS_RATE_SCALE, matrix.toRows());
+            current.response = response;
+        }
+        return response;
+    }
+    
+    private State currentState() {
+        RateTable table = conversionService.getRateTable();
+        State current = state;
+        if (current != null && current.source == table) {
+            return current;
+        }
+        synchronized (this) {
+            current = state;
+            if (current == null) {
+                current = new State(table, CrossRateMatrix.build(table));
+            } else if (current.source != table) {
+                CrossRateMatrix updated = current.matrix.update(table);
+                RateMatrixResponse response = updated == current.matrix ? current.response : null;
+                current = new State(table, updated);
+                current.response = response;
+            }
+            state = current;
+            return current;
+        }
+    }
+    
+    private static final class State {
+        private final RateTable source;
+        private final CrossRateMatrix matrix;
+        private volatile RateMatrixResponse response;
+        
+        private State(RateTable source, CrossRateMatrix matrix) {
+            this.source = source;
+            this.matrix = matrix;
+        }
+    }
+}
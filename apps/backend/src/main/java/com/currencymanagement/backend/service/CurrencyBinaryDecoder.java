@@ -0,0 +1,77 @@
+package com.currencymanagement.backend.service;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@value CurrencyBinaryEncoder#MEDIA_TYPE} format written by {@link CurrencyBinaryEncoder}.
+ * <p>
+ * Depends on nothing but the JDK, so consumers can copy it as is. Rates stay scaled longs; divide by
+ * {@code 10^scale}, or call {@link Rate#exchangeRate()}, when a decimal is needed.
+ */
+public final class CurrencyBinaryDecoder {
+
+    private static final int MAGIC = 0x43524231;
+    private static final int FLAG_METADATA = 1;
+
+    private CurrencyBinaryDecoder() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Decodes a whole response body.
+     *
+     * @throws IllegalArgumentException if the body is not in this format or is truncated
+     */
+    public static Catalog decode(ByteBuffer body) {
+        try {
+            if (body.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a currency rates body");
+            }
+            boolean metadata = (body.get() & FLAG_METADATA) != 0;
+            int scale = body.get();
+            long version = body.getLong();
+            int count = body.getInt();
+            List<Rate> rates = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String code = unpackCode(body.getInt());
+                long scaledRate = body.getLong();
+                if (metadata) {
+                    long id = body.getLong();
+                    rates.add(new Rate(code, scaledRate, scale, id, getUtf8(body), getUtf8(body)));
+                } else {
+                    rates.add(new Rate(code, scaledRate, scale, 0, null, null));
+                }
+            }
+            return new Catalog(version, rates);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated currency rates body", e);
+        }
+    }
+
+    public static String unpackCode(int packed) {
+        return new String(new char[] {(char) ((packed >> 16) & 0x7F), (char) ((packed >> 8) & 0x7F), (char) (packed & 0x7F)});
+    }
+
+    private static String getUtf8(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xFFFF];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public record Catalog(long version, List<Rate> rates) {}
+
+    /**
+     * One currency. {@code id}, {@code name} and {@code symbol} are only set when metadata was requested.
+     */
+    public record Rate(String code, long scaledRate, int scale, long id, String name, String symbol) {
+
+        public BigDecimal exchangeRate() {
+            return BigDecimal.valueOf(scaledRate, scale);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Writes a {@link CurrencySnapshot} in the compact {@value #MEDIA_TYPE} format, for consumers that
+ * poll the whole rate set many times per second. {@link CurrencyBinaryDecoder} reads it back.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * int   magic "CRB1"
+ * byte  flags, bit 0 set when metadata follows each rate
+ * byte  rate scale, currently 4
+ * long  catalog version
+ * int   number of currencies
+ * then per currency:
+ * int   code, three ASCII characters packed as (c0 &lt;&lt; 16) | (c1 &lt;&lt; 8) | c2
+ * long  rate * 10^scale
+ * and, with metadata only:
+ * long  id
+ * short byte length, then the name in UTF-8
+ * short byte length, then the symbol in UTF-8
+ * </pre>
+ * Codes and scaled rates are computed once per snapshot, and names and symbols are written char by
+ * char, so encoding allocates nothing once the buffer has grown to fit the catalog. An encoder is
+ * not thread-safe.
+ */
+public final class CurrencyBinaryEncoder {
+
+    public static final String MEDIA_TYPE = "application/x-currency-rates";
+    public static final int MAGIC = 0x43524231;
+    public static final int FLAG_METADATA = 1;
+    public static final int HEADER_BYTES = 18;
+    public static final int RATE_BYTES = 12;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    /**
+     * Encodes {@code snapshot} into this encoder's buffer and returns the buffer ready to be read.
+     * The contents stay valid until the next call.
+     *
+     * @throws IllegalArgumentException if a code cannot be packed into an int
+     */
+    public ByteBuffer encode(CurrencySnapshot snapshot, boolean metadata) {
+        List<Currency> currencies = snapshot.getCurrencies();
+        int[] codes = snapshot.getPackedCodes();
+        long[] rates = snapshot.getScaledRates();
+        ensureCapacity(maxSize(currencies, metadata));
+
+        buffer.clear();
+        buffer.putInt(MAGIC);
+        buffer.put((byte) (metadata ? FLAG_METADATA : 0));
+        buffer.put((byte) RateTable.RATE_SCALE);
+        buffer.putLong(snapshot.getVersion());
+        buffer.putInt(codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] < 0) {
+                throw new IllegalArgumentException("Currency code cannot be packed: " + currencies.get(i).getCode());
+            }
+            buffer.putInt(codes[i]);
+            buffer.putLong(rates[i]);
+            if (metadata) {
+                Currency currency = currencies.get(i);
+                buffer.putLong(currency.getId() != null ? currency.getId() : 0);
+                putUtf8(currency.getName());
+                putUtf8(currency.getSymbol());
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Packs a code of three ASCII characters into an int, or returns {@code -1} if it is not one.
+     */
+    public static int packCode(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c == 0 || c > 0x7F) {
+                return -1;
+            }
+            packed = (packed << 8) | c;
+        }
+        return packed;
+    }
+
+    private static int maxSize(List<Currency> currencies, boolean metadata) {
+        int size = HEADER_BYTES + currencies.size() * RATE_BYTES;
+        if (metadata) {
+            for (Currency currency : currencies) {
+                // At most three UTF-8 bytes per UTF-16 char
+                size += 12 + 3 * (length(currency.getName()) + length(currency.getSymbol()));
+            }
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private void ensureCapacity(int size) {
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        }
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string without going through a byte array.
+     */
+    private void putUtf8(String value) {
+        int lengthPosition = buffer.position();
+        buffer.putShort((short) 0);
+        int n = length(value);
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates become '?', as String.getBytes would write them
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.putShort(lengthPosition, (short) (buffer.position() - lengthPosition - 2));
+    }
+}
@@ -0,0 +1,179 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CandleResponse;
+import com.currencymanagement.backend.dto.CurrencyChangeEvent;
+import com.currencymanagement.backend.repository.CurrencyCandleRepository;
+import com.currencymanagement.backend.repository.CurrencyCandleRepository.Candle;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains 1m/5m/1h/1d OHLC candles of every currency as its rate changes.
+ * <p>
+ * Every committed rate change, local or announced by another instance, updates the current bucket
+ * of each interval in memory. Closed buckets are written to {@code currency_candles} every
+ * {@code currency.candles.flush-ms}, open ones as well on shutdown; writes merge with what other
+ * instances stored for the same bucket. Memory keeps the last {@code currency.candles.memory-buckets}
+ * buckets of each interval, but never buckets from before this instance started.
+ * <p>
+ * Reads take the buckets memory covers from memory and older ones from the table, so no candle is
+ * ever computed from {@code currency_rate_history} at query time. Rates replaced by file imports
+ * are not announced per currency and do not show up in candles.
+ */
+@Service
+public class CurrencyCandleService {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyCandleService.class);
+
+    @Autowired
+    private CurrencyCandleRepository candleRepository;
+
+    @Value("${currency.candles.memory-buckets:120}")
+    private int memoryBuckets;
+
+    private final Map<SeriesKey, CandleSeries> series = new ConcurrentHashMap<>();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final LongAdder recordedTicks = new LongAdder();
+    private final LongAdder persistedCandles = new LongAdder();
+    private final LongAdder persistFailures = new LongAdder();
+
+    /**
+     * Adds a committed rate change at {@code at} to the candles of {@code code}.
+     */
+    public void record(String code, BigDecimal rate, LocalDateTime at) {
+        for (CandleInterval interval : CandleInterval.values()) {
+            series.computeIfAbsent(new SeriesKey(code, interval), key -> new CandleSeries(code, interval))
+                .record(rate, at);
+        }
+        recordedTicks.increment();
+    }
+
+    /**
+     * Adds the rate changes among {@code changes}; deletions carry no rate and are skipped.
+     */
+    public void record(List<CurrencyChangeEvent> changes, LocalDateTime at) {
+        for (CurrencyChangeEvent change : changes) {
+            if (change.getExchangeRate() != null) {
+                record(change.getCode(), change.getExchangeRate(), at);
+            }
+        }
+    }
+
+    /**
+     * Returns the candles of {@code code} whose buckets start within {@code [from, to]}, after
+     * aligning {@code from} to its bucket, oldest first. Buckets without rate changes are left out.
+     */
+    public List<CandleResponse> getCandles(String code, CandleInterval interval, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = interval.bucketStart(from);
+        LocalDateTime horizon = memoryHorizon(interval, LocalDateTime.now());
+        TreeMap<LocalDateTime, Candle> candles = new TreeMap<>();
+        if (!first.isAfter(horizon)) {
+            // Includes the bucket at the horizon, which may have started before this instance did
+            LocalDateTime last = to.isBefore(horizon) ? to : horizon;
+            for (Candle candle : candleRepository.findRange(code, interval.getParameter(), first, last)) {
+                candles.put(candle.bucketStart(), candle);
+            }
+        }
+        CandleSeries recent = series.get(new SeriesKey(code, interval));
+        if (recent != null) {
+            for (Candle candle : recent.range(first, to)) {
+                candles.merge(candle.bucketStart(), candle, Candle::merge);
+            }
+        }
+
+        List<CandleResponse> response = new ArrayList<>(candles.size());
+        for (Candle candle : candles.values()) {
+            response.add(new CandleResponse(candle.bucketStart(), candle.open(), candle.high(), candle.low(), candle.close()));
+        }
+        return response;
+    }
+
+    /**
+     * Writes the closed buckets changed since the last run, then evicts buckets memory no longer covers.
+     */
+    @Scheduled(fixedDelayString = "${currency.candles.flush-ms:10000}")
+    public void persistClosedCandles() {
+        persist(false);
+    }
+
+    @PreDestroy
+    void persistOnShutdown() {
+        persist(true);
+    }
+
+    private void persist(boolean includeOpen) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<CandleSeries, List<Candle>> taken = new HashMap<>();
+        List<Candle> batch = new ArrayList<>();
+        for (CandleSeries candleSeries : series.values()) {
+            List<Candle> candles = candleSeries.takeUnpersisted(
+                includeOpen ? LocalDateTime.MAX : candleSeries.interval().bucketStart(now));
+            if (!candles.isEmpty()) {
+                taken.put(candleSeries, candles);
+                batch.addAll(candles);
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                candleRepository.upsert(batch);
+                persistedCandles.add(batch.size());
+            } catch (RuntimeException e) {
+                taken.forEach(CandleSeries::restoreUnpersisted);
+                persistFailures.increment();
+                log.warn("Persisting {} candles failed, retrying on the next run", batch.size(), e);
+                return;
+            }
+        }
+        for (CandleSeries candleSeries : series.values()) {
+            candleSeries.evictBefore(memoryHorizon(candleSeries.interval(), now));
+        }
+    }
+
+    /**
+     * Start of the oldest bucket memory holds every tick of: the bucket this instance started in,
+     * or the first bucket of the retained window if that is later.
+     */
+    private LocalDateTime memoryHorizon(CandleInterval interval, LocalDateTime now) {
+        LocalDateTime windowStart = interval.bucketStart(now).minus(interval.getLength().multipliedBy(memoryBuckets - 1L));
+        LocalDateTime startBucket = interval.bucketStart(startedAt);
+        return windowStart.isAfter(startBucket) ? windowStart : startBucket;
+    }
+
+    public int getMemoryCandleCount() {
+        int count = 0;
+        for (CandleSeries candleSeries : series.values()) {
+            count += candleSeries.size();
+        }
+        return count;
+    }
+
+    public long getRecordedTickCount() {
+        return recordedTicks.sum();
+    }
+
+    public long getPersistedCandleCount() {
+        return persistedCandles.sum();
+    }
+
+    public long getPersistFailureCount() {
+        return persistFailures.sum();
+    }
+
+    private record SeriesKey(String code, CandleInterval interval) {}
+}
@@ -0,0 +1,355 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CurrencyChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans committed currency changes out to Server-Sent Events subscribers.
+ * <p>
+ * Idle subscribers cost no thread: each one is an async request plus a small pending map.
+ * Events are serialized once per change and queued per subscriber keyed by currency code,
+ * so a subscriber that falls behind only ever receives the latest event for each code.
+ * The pending map is capped at {@code currency.stream.buffer-size} codes; past that the
+ * subscriber is sent a single {@code RESYNC} event and is expected to refetch the catalog.
+ * <p>
+ * Delivery runs on a small dispatcher pool with at most one task in flight per subscriber.
+ * Sends block: a client that stops reading holds its thread once the socket buffers are full,
+ * until the connector's write timeout ({@code server.tomcat.connection-timeout}) fails the write;
+ * completing the emitter does not wake it. A send still blocked after
+ * {@code currency.stream.send-timeout-ms} drops its subscriber and no longer counts against the
+ * pool, which gets a replacement thread until the send returns. At most
+ * {@code currency.stream.dispatch-threads} replacements are added, so a few stalled clients delay
+ * the others by about twice the send timeout at worst, while more stalled at once than the pool
+ * has threads block delivery until their writes time out.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} on Java 21+ every drain gets its own virtual thread
+ * instead, so a stalled client blocks nobody else and the pool settings do not apply.
+ */
+@Component
+public class CurrencyChangeBroadcaster {
+    
+    private static final Logger log = LoggerFactory.getLogger(CurrencyChangeBroadcaster.class);
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Value("${currency.stream.buffer-size:256}")
+    private int bufferSize;
+    
+    @Value("${currency.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+    
+    @Value("${currency.stream.dispatch-threads:4}")
+    private int dispatchThreads;
+    
+    @Value("${currency.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMillis;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder stalled = new LongAdder();
+    private Executor dispatcher;
+    // Null with virtual threads
+    private ThreadPoolExecutor dispatchPool;
+    // Guarded by this
+    private int replacementThreads;
+    
+    @PostConstruct
+    void start() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            dispatcher = new VirtualThreadTaskExecutor("currency-stream-");
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatchPool = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "currency-stream-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        dispatcher = dispatchPool;
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (dispatchPool != null) {
+            dispatchPool.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+    
+    /**
+     * Opens a new stream. The first event is {@code READY}, carrying the current catalog version.
+     * <p>
+     * The subscriber is registered before the version is read and READY is queued ahead of any
+     * change, so every change committed after that version reaches the stream.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+    
+    // Package-private so tests can stand in for the client connection
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        
+        subscribers.add(subscriber);
+        subscriber.ready(Long.toString(catalogVersion.get()));
+        return emitter;
+    }
+    
+    public void publish(CurrencyChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize currency change event", e);
+        }
+        Frame frame = new Frame(event.getType().name(), Long.toString(catalogVersion.get()), data);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event.getCode(), frame);
+        }
+    }
+    
+    /**
+     * Tells every subscriber to refetch the catalog, for when changes may have been missed.
+     */
+    public void resyncAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.requestResync();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${currency.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        // Lets proxies keep idle connections open and surfaces clients that went away
+        for (Subscriber subscriber : subscribers) {
+            subscriber.requestHeartbeat();
+        }
+    }
+    
+    /**
+     * Drops subscribers whose current send has been blocked for longer than the send timeout
+     * and replaces the dispatcher threads they hold.
+     */
+    @Scheduled(fixedDelayString = "${currency.stream.send-timeout-ms:10000}")
+    public void dropStalled() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutMillis && subscribers.remove(subscriber)) {
+                stalled.increment();
+                log.info("Dropping currency stream subscriber blocked on a send for {} ms", now - since);
+                subscriber.replaceThread();
+            }
+        }
+    }
+    
+    private synchronized boolean addReplacementThread() {
+        if (dispatchPool == null || replacementThreads == dispatchThreads) {
+            return false;
+        }
+        replacementThreads++;
+        // Maximum first: the core size may never exceed it
+        dispatchPool.setMaximumPoolSize(dispatchThreads + replacementThreads);
+        dispatchPool.setCorePoolSize(dispatchThreads + replacementThreads);
+        return true;
+    }
+    
+    private synchronized void removeReplacementThread() {
+        replacementThreads--;
+        dispatchPool.setCorePoolSize(dispatchThreads + replacementThreads);
+        dispatchPool.setMaximumPoolSize(dispatchThreads + replacementThreads);
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    public long getStalledCount() {
+        return stalled.sum();
+    }
+    
+    // Dispatcher threads including replacements, 0 with virtual threads
+    int getDispatchPoolSize() {
+        return dispatchPool != null ? dispatchPool.getMaximumPoolSize() : 0;
+    }
+    
+    private record Frame(String name, String id, String data) {}
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Wall-clock start of the send in progress, 0 when none is
+        private volatile long sendingSince;
+        
+        // Guarded by this
+        private String readyVersion;
+        private Map<String, Frame> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean heartbeat;
+        private boolean replaced;
+        
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        void offer(String code, Frame frame) {
+            synchronized (this) {
+                if (!overflowed) {
+                    pending.put(code, frame);
+                    if (pending.size() > bufferSize) {
+                        pending.clear();
+                        overflowed = true;
+                    }
+                }
+            }
+            schedule();
+        }
+        
+        void ready(String version) {
+            synchronized (this) {
+                readyVersion = version;
+            }
+            schedule();
+        }
+        
+        void requestResync() {
+            synchronized (this) {
+                pending.clear();
+                overflowed = true;
+            }
+            schedule();
+        }
+        
+        void requestHeartbeat() {
+            synchronized (this) {
+                heartbeat = true;
+            }
+            schedule();
+        }
+        
+        void replaceThread() {
+            synchronized (this) {
+                // A send that returned meanwhile has freed its thread already
+                if (sendingSince != 0 && !replaced) {
+                    replaced = addReplacementThread();
+                }
+            }
+        }
+        
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                while (true) {
+                    String ready;
+                    Map<String, Frame> batch;
+                    boolean resync;
+                    boolean ping;
+                    synchronized (this) {
+                        if (readyVersion == null && pending.isEmpty() && !overflowed && !heartbeat) {
+                            scheduled.set(false);
+                            return;
+                        }
+                        ready = readyVersion;
+                        readyVersion = null;
+                        batch = pending;
+                        pending = new LinkedHashMap<>();
+                        resync = overflowed;
+                        overflowed = false;
+                        ping = heartbeat;
+                        heartbeat = false;
+                    }
+                    
+                    if (ready != null) {
+                        send(SseEmitter.event().name("READY").id(ready).data(ready));
+                    }
+                    if (resync) {
+                        String version = Long.toString(catalogVersion.get());
+                        send(SseEmitter.event().name("RESYNC").id(version).data(version));
+                    }
+                    for (Frame frame : batch.values()) {
+                        send(SseEmitter.event()
+                            .name(frame.name())
+                            .id(frame.id())
+                            .data(frame.data(), MediaType.APPLICATION_JSON));
+                    }
+                    if (ping && ready == null && !resync && batch.isEmpty()) {
+                        send(SseEmitter.event().comment("keepalive"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed; the container cleans up the request
+                subscribers.remove(this);
+                log.debug("Dropping currency stream subscriber: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                // Left scheduled, so nothing drains this subscriber again: it must not stay registered
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                log.warn("Dropping currency stream subscriber after a failed send", e);
+            } finally {
+                synchronized (this) {
+                    if (replaced) {
+                        replaced = false;
+                        removeReplacementThread();
+                    }
+                }
+            }
+        }
+        
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendingSince = System.currentTimeMillis();
+            try {
+                emitter.send(event);
+            } finally {
+                sendingSince = 0;
+            }
+        }
+    }
+}
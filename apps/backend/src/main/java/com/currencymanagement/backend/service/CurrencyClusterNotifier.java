@@ -0,0 +1,313 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CurrencyChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the in-memory currency state of every instance sharing {@code currency_db} coherent,
+ * using Postgres {@code LISTEN/NOTIFY} instead of a separate broker.
+ * <p>
+ * Writers call {@link #notifyChanges} inside their transaction; Postgres only delivers the
+ * notification once that transaction commits. Each instance holds one dedicated connection
+ * listening on the channel and, for notifications from other instances, reloads its snapshot,
+ * bumps its catalog version and forwards the events to its own stream subscribers.
+ * <p>
+ * Notifications sent while an instance is disconnected are lost, so after every reconnect the
+ * instance resyncs in full: snapshot reload, version bump and {@code RESYNC} to subscribers.
+ * Payloads larger than Postgres allows are replaced by a resync request as well.
+ */
+@Component
+public class CurrencyClusterNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyClusterNotifier.class);
+
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+
+    @Autowired
+    private CurrencyChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private CurrencyCandleService candleService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${currency.cluster.enabled:true}")
+    private boolean enabled;
+
+    @Value("${currency.cluster.channel:currency_changes}")
+    private String channel;
+
+    @Value("${currency.cluster.keepalive-ms:10000}")
+    private int keepaliveMillis;
+
+    @Value("${currency.cluster.reconnect-max-ms:5000}")
+    private long maxReconnectDelayMillis;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private Timer propagationTimer;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection listenConnection;
+    private Thread listener;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        // The channel is spliced into LISTEN, which does not take bind parameters
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid currency.cluster.channel: " + channel);
+        }
+        propagationTimer = Timer.builder("currency.cluster.propagation")
+            .description("Time from a change being sent by one instance to being applied by another")
+            .publishPercentileHistogram()
+            .maximumExpectedValue(Duration.ofSeconds(5))
+            .register(meterRegistry);
+        running = true;
+        listener = new Thread(this::listen, "currency-cluster-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Announces committed changes to the other instances. Must run inside the writing transaction
+     * so that the notification is delivered on commit and dropped on rollback.
+     */
+    public void notifyChanges(List<CurrencyChangeEvent> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return;
+        }
+        String payload = serialize(new ClusterMessage(nodeId, System.currentTimeMillis(), false, changes));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            notifyResync();
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+        sent.increment();
+    }
+
+    /**
+     * Asks the other instances to reload everything, for writes too large to describe as events.
+     * Inside a transaction the request is delivered on commit, otherwise straight away.
+     */
+    public void notifyResync() {
+        if (!enabled) {
+            return;
+        }
+        String payload = serialize(new ClusterMessage(nodeId, System.currentTimeMillis(), true, List.of()));
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+        sent.increment();
+    }
+
+    private void listen() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+        boolean missedChanges = false;
+        while (running) {
+            try (Connection connection = openListenConnection()) {
+                listenConnection = connection;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                connected = true;
+                reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+                if (missedChanges) {
+                    resync("listener reconnected");
+                    missedChanges = false;
+                }
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(keepaliveMillis);
+                    if (notifications == null || notifications.length == 0) {
+                        // Idle: make sure the connection is still alive rather than silently half-open
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    apply(notifications);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connected = false;
+                missedChanges = true;
+                if (!running) {
+                    return;
+                }
+                log.warn("Currency cluster listener disconnected, reconnecting in {} ms: {}",
+                    reconnectDelay, e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, maxReconnectDelayMillis);
+            }
+        }
+    }
+
+    /**
+     * Applies every notification delivered in one wake-up with a single snapshot reload.
+     */
+    private void apply(PGNotification[] notifications) {
+        boolean resync = false;
+        boolean changed = false;
+        long oldestSentAt = Long.MAX_VALUE;
+        List<CurrencyChangeEvent> events = new ArrayList<>();
+        for (PGNotification notification : notifications) {
+            ClusterMessage message;
+            try {
+                message = objectMapper.readValue(notification.getParameter(), ClusterMessage.class);
+            } catch (JsonProcessingException e) {
+                log.warn("Ignoring malformed currency cluster notification: {}", e.getMessage());
+                continue;
+            }
+            if (nodeId.equals(message.node())) {
+                continue;
+            }
+            received.increment();
+            changed = true;
+            resync |= message.resync();
+            oldestSentAt = Math.min(oldestSentAt, message.sentAt());
+            if (message.events() != null) {
+                events.addAll(message.events());
+                // Stamped with the time the sender wrote the change, not the time it arrived here
+                candleService.record(message.events(),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(message.sentAt()), ZoneId.systemDefault()));
+            }
+        }
+        if (!changed) {
+            return;
+        }
+
+        // The other instance has committed: reads must not go to a replica that has not replayed it yet
+        replicaLagGuard.markWrite();
+        snapshotCache.refreshAfterCommit();
+        if (resync) {
+            resyncs.increment();
+            changeBroadcaster.resyncAll();
+        } else {
+            events.forEach(changeBroadcaster::publish);
+        }
+        propagationTimer.record(Math.max(0, System.currentTimeMillis() - oldestSentAt), TimeUnit.MILLISECONDS);
+    }
+
+    private void resync(String reason) {
+        log.info("Resyncing currency state: {}", reason);
+        resyncs.increment();
+        replicaLagGuard.markWrite();
+        snapshotCache.refreshAfterCommit();
+        changeBroadcaster.resyncAll();
+    }
+
+    private Connection openListenConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        properties.setProperty("ApplicationName", "currency-cluster-listener");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private String serialize(ClusterMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize currency cluster message", e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // Already broken; nothing left to release
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getResyncCount() {
+        return resyncs.sum();
+    }
+
+    record ClusterMessage(String node, long sentAt, boolean resync, List<CurrencyChangeEvent> events) {}
+}
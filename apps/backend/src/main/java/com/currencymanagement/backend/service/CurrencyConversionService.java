@@ -0,0 +1,67 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.ConversionResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+/**
+ * Converts amounts between currencies using the in-process {@link RateTable}.
+ * <p>
+ * The rate table comes from the current {@link CurrencySnapshot}, so a conversion never
+ * touches the database while the snapshot cache is enabled. BigDecimal is only used to
+ * parse the request and render the response; the conversion itself runs on fixed-point longs.
+ */
+@Service
+public class CurrencyConversionService {
+    
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+    
+    @Autowired
+    private CurrencyService currencyService;
+    
+    /**
+     * Returns the rate table conversions are served from. Falls back to building one
+     * from a database read when the snapshot cache is disabled.
+     */
+    public RateTable getRateTable() {
+        CurrencySnapshot snapshot = snapshotCache.get();
+        if (snapshot != null) {
+            return snapshot.getRateTable();
+        }
+        return new RateTable(currencyService.getAllCurrencies());
+    }
+    
+    /**
+     * Converts {@code amount} from one currency to another.
+     *
+     * @return empty if either code is unknown or has no usable rate
+     * @throws ArithmeticException if the amount or the result is out of range
+     */
+    public Optional<ConversionResponse> convert(String from, String to, BigDecimal amount) {
+        RateTable rates = getRateTable();
+        int fromIndex = rates.indexOf(from);
+        int toIndex = rates.indexOf(to);
+        if (fromIndex < 0 || toIndex < 0) {
+            return Optional.empty();
+        }
+        
+        long unscaledAmount = amount.setScale(RateTable.AMOUNT_SCALE, RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact();
+        long result = rates.convert(unscaledAmount, fromIndex, toIndex);
+        long rate = rates.crossRate(fromIndex, toIndex);
+        
+        return Optional.of(new ConversionResponse(
+            from,
+            to,
+            BigDecimal.valueOf(unscaledAmount, RateTable.AMOUNT_SCALE),
+            BigDecimal.valueOf(result, RateTable.AMOUNT_SCALE),
+            BigDecimal.valueOf(rate, RateTable.CROSS_RATE_SCALE)
+        ));
+    }
+}
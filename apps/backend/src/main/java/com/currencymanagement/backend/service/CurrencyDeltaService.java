@@ -0,0 +1,91 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CurrencyDeltaResponse;
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.repository.CurrencyDeltaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync for clients that keep a local copy of the catalog: each call returns the currencies
+ * created or updated and the codes deleted since the caller's cursor, plus the cursor to send next.
+ * <p>
+ * {@code updated_at} is stamped with the start time of the writing transaction, so a row can become
+ * visible after rows stamped later than it. Cursors therefore never move past
+ * {@code now - currency.delta.settle-ms}; changes newer than that are sent as soon as they are
+ * visible and sent again on the next call, which clients absorb by overwriting by code.
+ * <p>
+ * Tombstones are kept for {@code currency.delta.tombstone-retention-days}. A cursor older than that
+ * could miss deletions, so it gets the whole catalog with {@code reset} set, as does a first call.
+ */
+@Service
+public class CurrencyDeltaService {
+    
+    private static final Logger log = LoggerFactory.getLogger(CurrencyDeltaService.class);
+    
+    @Autowired
+    private CurrencyDeltaRepository deltaRepository;
+    
+    @Value("${currency.delta.settle-ms:5000}")
+    private long settleMillis;
+    
+    @Value("${currency.delta.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+    
+    /**
+     * Returns the changes after cursor {@code since}, at most {@code limit} currencies of them.
+     *
+     * @param since cursor from the previous call, or null for the whole catalog
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CurrencyDeltaResponse getChangesSince(String since, int limit) {
+        DeltaCursor cursor = since != null ? DeltaCursor.decode(since) : null;
+        LocalDateTime now = deltaRepository.currentTimestamp();
+        DeltaCursor horizon = DeltaCursor.before(now.minusNanos(settleMillis * 1_000_000));
+        
+        if (cursor == null || cursor.changedAt().isBefore(now.minusDays(tombstoneRetentionDays))) {
+            List<Currency> all = deltaRepository.findChangedAfter(null, 0, Integer.MAX_VALUE);
+            return new CurrencyDeltaResponse(all, List.of(), horizon.encode(), false, true);
+        }
+        
+        List<Currency> changed = deltaRepository.findChangedAfter(cursor.changedAt(), cursor.id(), limit + 1);
+        DeltaCursor next = horizon;
+        LocalDateTime deletedUpTo = null;
+        boolean hasMore = false;
+        if (changed.size() > limit) {
+            changed = changed.subList(0, limit);
+            Currency last = changed.get(limit - 1);
+            DeltaCursor lastSent = new DeltaCursor(last.getUpdatedAt(), last.getId());
+            // Past the horizon the rest is resent on the next call anyway
+            if (lastSent.compareTo(horizon) < 0) {
+                next = lastSent;
+                deletedUpTo = last.getUpdatedAt();
+                hasMore = true;
+            }
+        }
+        if (next.compareTo(cursor) < 0) {
+            next = cursor;
+        }
+        List<String> deleted = deltaRepository.findDeletedCodes(cursor.changedAt(), deletedUpTo);
+        return new CurrencyDeltaResponse(changed, deleted, next.encode(), hasMore, false);
+    }
+    
+    @Scheduled(fixedDelayString = "${currency.delta.tombstone-purge-ms:3600000}")
+    @Transactional
+    public void purgeTombstones() {
+        LocalDateTime cutoff = deltaRepository.currentTimestamp().minusDays(tombstoneRetentionDays);
+        int purged = deltaRepository.deleteTombstonesBefore(cutoff);
+        if (purged > 0) {
+            log.info("Purged {} currency tombstones older than {}", purged, cutoff);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.repository.CurrencyExportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+
+/**
+ * Streams whole tables to a client for bulk export.
+ * <p>
+ * Each export runs in one read-only transaction, which both enables the driver's cursor
+ * and gives the client a consistent snapshot of the table.
+ */
+@Service
+public class CurrencyExportService {
+    
+    @Autowired
+    private CurrencyExportRepository exportRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Writes every currency to {@code out}, ordered by id.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportCurrencies(DataFormat format, OutputStream out) {
+        return exportRepository.streamCurrencies(new RowStreamWriter(format, out, objectMapper.getFactory()));
+    }
+    
+    /**
+     * Writes the whole rate history to {@code out}, ordered by id.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportRateHistory(DataFormat format, OutputStream out) {
+        return exportRepository.streamRateHistory(new RowStreamWriter(format, out, objectMapper.getFactory()));
+    }
+}
@@ -0,0 +1,278 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CreateCurrencyRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads currencies from an NDJSON or CSV stream one record at a time, the inverse of {@link RowStreamWriter}.
+ * <p>
+ * NDJSON lines are bound to {@link CreateCurrencyRequest}, ignoring unknown properties. CSV needs a
+ * header row naming at least {@code code}, {@code name}, {@code symbol} and {@code exchangeRate}
+ * ({@code exchange_rate} is accepted too); other columns are ignored and quoted fields may span lines.
+ * Files written by the export can therefore be imported as they are.
+ * <p>
+ * Only the current record is held in memory, and records longer than {@link #MAX_RECORD_CHARS}
+ * are skipped and reported rather than buffered.
+ */
+public final class CurrencyImportReader {
+
+    static final int MAX_RECORD_CHARS = 16 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] REQUIRED_COLUMNS = {"code", "name", "symbol", "exchangerate"};
+
+    private final DataFormat format;
+    private final Reader reader;
+    private final ObjectMapper objectMapper;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    private long line = 1;
+    private int recordChars;
+    private boolean overflow;
+
+    // Index of code, name, symbol and exchangeRate in a CSV row
+    private int[] columns;
+    private int lastColumn;
+
+    public CurrencyImportReader(DataFormat format, InputStream in, ObjectMapper objectMapper) {
+        this.format = format;
+        this.reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next record, or null at the end of the input. Blank lines are skipped.
+     *
+     * @throws IllegalArgumentException if the CSV header lacks a required column
+     */
+    public ImportRecord next() throws IOException {
+        if (format == DataFormat.CSV && columns == null) {
+            readHeader();
+        }
+        while (true) {
+            long startLine = line;
+            boolean more = format == DataFormat.CSV ? readCsvRecord() : readLine();
+            if (!more) {
+                return null;
+            }
+            if (overflow) {
+                return new ImportRecord(startLine, null, null, "Bản ghi vượt quá " + MAX_RECORD_CHARS + " ký tự");
+            }
+            if (format == DataFormat.CSV) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                return parseCsv(startLine);
+            }
+            String json = field.toString();
+            if (json.isBlank()) {
+                continue;
+            }
+            return parseJson(startLine, json);
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if (!readCsvRecord() || overflow) {
+            throw new IllegalArgumentException("File CSV thiếu dòng tiêu đề");
+        }
+        columns = new int[REQUIRED_COLUMNS.length];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < fields.size(); i++) {
+            // Tolerates a byte order mark, surrounding spaces, any case and snake_case names
+            String name = fields.get(i).replace("\uFEFF", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+            for (int c = 0; c < REQUIRED_COLUMNS.length; c++) {
+                if (REQUIRED_COLUMNS[c].equals(name) && columns[c] < 0) {
+                    columns[c] = i;
+                }
+            }
+        }
+        for (int c = 0; c < REQUIRED_COLUMNS.length; c++) {
+            if (columns[c] < 0) {
+                throw new IllegalArgumentException("File CSV thiếu cột " + REQUIRED_COLUMNS[c]);
+            }
+            lastColumn = Math.max(lastColumn, columns[c]);
+        }
+    }
+
+    private ImportRecord parseJson(long startLine, String json) {
+        try {
+            CreateCurrencyRequest request = objectMapper.readValue(json, CreateCurrencyRequest.class);
+            if (request == null) {
+                return new ImportRecord(startLine, null, null, "Bản ghi không được để trống");
+            }
+            return new ImportRecord(startLine, request.getCode(), request, null);
+        } catch (JsonProcessingException e) {
+            return new ImportRecord(startLine, null, null, "Dòng không phải JSON hợp lệ: " + e.getOriginalMessage());
+        }
+    }
+
+    private ImportRecord parseCsv(long startLine) {
+        String code = column(0);
+        if (fields.size() <= lastColumn) {
+            return new ImportRecord(startLine, code, null, "Dòng có " + fields.size() + " cột, ít hơn tiêu đề");
+        }
+        String rate = column(3);
+        BigDecimal exchangeRate = null;
+        if (rate != null) {
+            try {
+                exchangeRate = new BigDecimal(rate.trim());
+            } catch (NumberFormatException e) {
+                return new ImportRecord(startLine, code, null, "Tỷ giá hối đoái không hợp lệ: " + rate);
+            }
+        }
+        return new ImportRecord(startLine, code, new CreateCurrencyRequest(code, column(1), column(2), exchangeRate), null);
+    }
+
+    private String column(int column) {
+        String value = fields.get(columns[column]);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads one line into {@link #field}, without its terminator.
+     */
+    private boolean readLine() throws IOException {
+        field.setLength(0);
+        recordChars = 0;
+        overflow = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) >= 0) {
+            any = true;
+            if (c == '\n') {
+                line++;
+                break;
+            }
+            append((char) c);
+        }
+        trimCarriageReturn(field);
+        return any;
+    }
+
+    /**
+     * Reads one CSV record into {@link #fields}. Quoted fields may contain separators, doubled quotes
+     * and line breaks.
+     */
+    private boolean readCsvRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        recordChars = 0;
+        overflow = false;
+        boolean any = false;
+        boolean quoted = false;
+        int c;
+        while ((c = read()) >= 0) {
+            any = true;
+            if (c == '\n') {
+                line++;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                // Separators count towards the limit too, or a run of them would grow the field list unbounded
+                if (++recordChars > MAX_RECORD_CHARS) {
+                    overflow = true;
+                } else {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else {
+                append((char) c);
+            }
+        }
+        if (!any) {
+            return false;
+        }
+        if (!quoted) {
+            trimCarriageReturn(field);
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private void append(char c) {
+        if (++recordChars > MAX_RECORD_CHARS) {
+            overflow = true;
+        } else {
+            field.append(c);
+        }
+    }
+
+    private static void trimCarriageReturn(StringBuilder value) {
+        int length = value.length();
+        if (length > 0 && value.charAt(length - 1) == '\r') {
+            value.setLength(length - 1);
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        int count = reader.read(buffer, 0, buffer.length);
+        while (count == 0) {
+            count = reader.read(buffer, 0, buffer.length);
+        }
+        if (count < 0) {
+            endOfInput = true;
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+
+    /**
+     * One record of the input: either a request to validate and write, or the error that
+     * prevented it from being read.
+     *
+     * @param line line on which the record starts, 1-based
+     * @param code the code as read, if any
+     */
+    public record ImportRecord(long line, String code, CreateCurrencyRequest request, String error) {}
+}
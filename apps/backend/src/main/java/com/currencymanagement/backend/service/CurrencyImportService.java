@@ -0,0 +1,168 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CurrencyImportResponse;
+import com.currencymanagement.backend.dto.ImportLineError;
+import com.currencymanagement.backend.repository.CurrencyBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Imports currencies from an uploaded NDJSON or CSV stream of any size.
+ * <p>
+ * Records are parsed one at a time, validated like {@code POST /api/currencies/batch} and upserted by
+ * code in batches of {@code currency.import.batch-size}, each batch in its own transaction and written
+ * with {@code COPY} through {@link CurrencyBatchRepository#copyUpsertByCode}. Invalid records are
+ * reported by line and left out without stopping the import. Memory use is bounded by the batch size
+ * and the number of reported errors, whatever the size of the input.
+ * <p>
+ * Batches committed before a failure stay committed. Instead of one change event per row, the
+ * snapshot is reloaded and subscribers and other instances are told to resync once the import ends.
+ */
+@Service
+public class CurrencyImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyImportService.class);
+
+    @Autowired
+    private CurrencyBatchRepository currencyBatchRepository;
+
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+
+    @Autowired
+    private CurrencyChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private CurrencyClusterNotifier clusterNotifier;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${currency.import.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${currency.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private final LongAdder importedRows = new LongAdder();
+    private final LongAdder failedRows = new LongAdder();
+
+    /**
+     * Reads {@code in} to the end and writes every valid record. Within a batch, the last record
+     * of a code wins and earlier ones are counted as skipped.
+     *
+     * @throws IllegalArgumentException if a CSV header lacks a required column; nothing is written
+     */
+    public CurrencyImportResponse importCurrencies(DataFormat format, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        CurrencyImportReader reader = new CurrencyImportReader(format, in, objectMapper);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Map<String, CurrencyBatchRepository.Row> batch = new LinkedHashMap<>(batchSize * 2);
+        List<ImportLineError> errors = new ArrayList<>();
+        long records = 0;
+        long created = 0;
+        long updated = 0;
+        long unchanged = 0;
+        long skipped = 0;
+        long failed = 0;
+
+        try {
+            CurrencyImportReader.ImportRecord record;
+            do {
+                record = reader.next();
+                if (record != null) {
+                    records++;
+                    String error = record.error() != null
+                        ? record.error()
+                        : CurrencyService.validateBatchItem(validator, record.request());
+                    if (error != null) {
+                        failed++;
+                        if (errors.size() < maxReportedErrors) {
+                            errors.add(new ImportLineError(record.line(), record.code(), error));
+                        }
+                        continue;
+                    }
+                    String code = record.request().getCode().toUpperCase();
+                    CurrencyBatchRepository.Row row = new CurrencyBatchRepository.Row(code,
+                        record.request().getName(), record.request().getSymbol(), record.request().getExchangeRate());
+                    if (batch.put(code, row) != null) {
+                        skipped++;
+                    }
+                }
+                if (!batch.isEmpty() && (record == null || batch.size() >= batchSize)) {
+                    CurrencyBatchRepository.CopyUpsertCounts counts = transactionTemplate.execute(status -> {
+                        // Rate ticks of these codes accepted before the batch must not be flushed over it
+                        snapshotCache.discardPendingRatesAfterCommit(batch.keySet());
+                        return currencyBatchRepository.copyUpsertByCode(batch.values());
+                    });
+                    // Committed: reads must not go to a replica that has not replayed this batch yet
+                    replicaLagGuard.markWrite();
+                    created += counts.inserted();
+                    updated += counts.updated();
+                    unchanged += batch.size() - counts.inserted() - counts.updated();
+                    batch.clear();
+                }
+            } while (record != null);
+        } finally {
+            if (created + updated > 0) {
+                announceImport();
+            }
+            importedRows.add(created + updated);
+            failedRows.add(failed);
+        }
+
+        long nanos = Math.max(1, System.nanoTime() - start);
+        CurrencyImportResponse response = new CurrencyImportResponse();
+        response.setRecords(records);
+        response.setCreated(created);
+        response.setUpdated(updated);
+        response.setUnchanged(unchanged);
+        response.setSkipped(skipped);
+        response.setFailed(failed);
+        response.setDurationMs(nanos / 1_000_000);
+        response.setRowsPerSecond(records * 1_000_000_000L / nanos);
+        response.setErrorsTruncated(failed > errors.size());
+        response.setErrors(errors);
+        log.info("Imported {} currency records ({} created, {} updated, {} unchanged, {} skipped, {} failed) in {} ms, {} rows/s",
+            records, created, updated, unchanged, skipped, failed, response.getDurationMs(), response.getRowsPerSecond());
+        return response;
+    }
+
+    private void announceImport() {
+        clusterNotifier.notifyResync();
+        snapshotCache.refreshAfterCommit();
+        changeBroadcaster.resyncAll();
+    }
+
+    public long getImportedRowCount() {
+        return importedRows.sum();
+    }
+
+    public long getFailedRowCount() {
+        return failedRows.sum();
+    }
+}
@@ -0,0 +1,394 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable autocomplete index over the code, name and symbol of every currency in a snapshot.
+ * <p>
+ * Codes and names are folded before they are indexed or searched: lower-cased, accents removed,
+ * {@code đ} read as {@code d}, and anything other than letters and digits treated as a word break,
+ * so "Đồng Việt" and "dong viet" are the same text. Prefixes of codes and of name words are found
+ * by binary search in sorted arrays; a query of three or more characters that occurs inside a name
+ * word is found through a trigram index and checked against the folded name. Symbols are matched
+ * whole, as typed.
+ * <p>
+ * Results are ranked by how they match, best first: exact code, exact symbol, code prefix, name
+ * prefix, prefix of a later name word, every query word a prefix of some name word, substring of a
+ * name word. Ties go to the shorter name, then the code.
+ */
+public final class CurrencySearchIndex {
+
+    private static final int CODE_EXACT = 7;
+    private static final int SYMBOL_EXACT = 6;
+    private static final int CODE_PREFIX = 5;
+    private static final int NAME_PREFIX = 4;
+    private static final int WORD_PREFIX = 3;
+    private static final int ALL_WORDS = 2;
+    private static final int SUBSTRING = 1;
+
+    private static final int[] NO_DOCS = new int[0];
+
+    private final List<Currency> currencies;
+    private final String[] names;
+    private final String[][] nameWords;
+    // Position of each currency in tie-break order, and the currency at each position
+    private final int[] rank;
+    private final int[] byRank;
+
+    private final String[] codeKeys;
+    private final int[] codeDocs;
+    private final String[] symbolKeys;
+    private final int[] symbolDocs;
+    private final String[] wordKeys;
+    private final int[] wordDocs;
+    private final boolean[] wordIsFirst;
+    private final Map<String, int[]> trigrams;
+
+    public CurrencySearchIndex(List<Currency> currencies) {
+        int n = currencies.size();
+        String[] codes = new String[n];
+        String[] symbols = new String[n];
+        this.currencies = currencies;
+        this.names = new String[n];
+        this.nameWords = new String[n][];
+        List<Entry> words = new ArrayList<>();
+        Map<String, IntList> grams = new HashMap<>();
+        for (int doc = 0; doc < n; doc++) {
+            Currency currency = currencies.get(doc);
+            codes[doc] = fold(currency.getCode());
+            symbols[doc] = symbolKey(currency.getSymbol());
+            names[doc] = fold(currency.getName());
+            nameWords[doc] = names[doc].isEmpty() ? new String[0] : names[doc].split(" ");
+            for (int i = 0; i < nameWords[doc].length; i++) {
+                String word = nameWords[doc][i];
+                words.add(new Entry(word, doc, i == 0));
+                for (int j = 0; j + 3 <= word.length(); j++) {
+                    grams.computeIfAbsent(word.substring(j, j + 3), key -> new IntList()).addOnce(doc);
+                }
+            }
+        }
+
+        Integer[] order = new Integer[n];
+        Arrays.setAll(order, doc -> doc);
+        Arrays.sort(order, Comparator.<Integer>comparingInt(doc -> names[doc].length()).thenComparing(doc -> codes[doc]));
+        this.rank = new int[n];
+        this.byRank = new int[n];
+        for (int i = 0; i < n; i++) {
+            byRank[i] = order[i];
+            rank[order[i]] = i;
+        }
+
+        List<Entry> codeEntries = new ArrayList<>(n);
+        List<Entry> symbolEntries = new ArrayList<>(n);
+        for (int doc = 0; doc < n; doc++) {
+            codeEntries.add(new Entry(codes[doc], doc, true));
+            if (!symbols[doc].isEmpty()) {
+                symbolEntries.add(new Entry(symbols[doc], doc, true));
+            }
+        }
+        codeEntries.sort(Comparator.comparing(Entry::key));
+        symbolEntries.sort(Comparator.comparing(Entry::key));
+        words.sort(Comparator.comparing(Entry::key));
+        this.codeKeys = codeEntries.stream().map(Entry::key).toArray(String[]::new);
+        this.codeDocs = codeEntries.stream().mapToInt(Entry::doc).toArray();
+        this.symbolKeys = symbolEntries.stream().map(Entry::key).toArray(String[]::new);
+        this.symbolDocs = symbolEntries.stream().mapToInt(Entry::doc).toArray();
+        this.wordKeys = words.stream().map(Entry::key).toArray(String[]::new);
+        this.wordDocs = words.stream().mapToInt(Entry::doc).toArray();
+        this.wordIsFirst = new boolean[words.size()];
+        for (int i = 0; i < wordIsFirst.length; i++) {
+            wordIsFirst[i] = words.get(i).first();
+        }
+        this.trigrams = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, docs) -> trigrams.put(gram, docs.toArray()));
+    }
+
+    private CurrencySearchIndex(CurrencySearchIndex source, List<Currency> currencies) {
+        this.currencies = currencies;
+        this.names = source.names;
+        this.nameWords = source.nameWords;
+        this.rank = source.rank;
+        this.byRank = source.byRank;
+        this.codeKeys = source.codeKeys;
+        this.codeDocs = source.codeDocs;
+        this.symbolKeys = source.symbolKeys;
+        this.symbolDocs = source.symbolDocs;
+        this.wordKeys = source.wordKeys;
+        this.wordDocs = source.wordDocs;
+        this.wordIsFirst = source.wordIsFirst;
+        this.trigrams = source.trigrams;
+    }
+
+    /**
+     * Whether {@code rows} have the same codes, names and symbols in the same order as the indexed
+     * currencies, so that {@link #withCurrencies} can be used instead of a rebuild.
+     */
+    public boolean indexes(List<Currency> rows) {
+        if (rows.size() != currencies.size()) {
+            return false;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Currency row = rows.get(i);
+            Currency indexed = currencies.get(i);
+            if (!Objects.equals(row.getCode(), indexed.getCode())
+                    || !Objects.equals(row.getName(), indexed.getName())
+                    || !Objects.equals(row.getSymbol(), indexed.getSymbol())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns an index sharing this one's structure that answers with {@code rows}, which must
+     * satisfy {@link #indexes}. Used when only rates have changed.
+     */
+    public CurrencySearchIndex withCurrencies(List<Currency> rows) {
+        return new CurrencySearchIndex(this, rows);
+    }
+
+    /**
+     * Returns at most {@code limit} currencies matching {@code query}, best match first.
+     */
+    public List<Currency> search(String query, int limit) {
+        String folded = fold(query);
+        if (folded.isEmpty() && symbolKey(query).isEmpty()) {
+            return List.of();
+        }
+        int[] scores = new int[currencies.size()];
+        IntList matched = new IntList();
+
+        if (!folded.isEmpty() && folded.indexOf(' ') < 0) {
+            int end = prefixEnd(codeKeys, folded);
+            for (int i = prefixStart(codeKeys, folded); i < end; i++) {
+                score(scores, matched, codeDocs[i], codeKeys[i].length() == folded.length() ? CODE_EXACT : CODE_PREFIX);
+            }
+        }
+        String symbol = symbolKey(query);
+        int symbolEnd = prefixEnd(symbolKeys, symbol);
+        for (int i = prefixStart(symbolKeys, symbol); i < symbolEnd; i++) {
+            if (symbolKeys[i].length() == symbol.length()) {
+                score(scores, matched, symbolDocs[i], SYMBOL_EXACT);
+            }
+        }
+        if (!folded.isEmpty()) {
+            String[] queryWords = folded.split(" ");
+            if (queryWords.length == 1) {
+                searchWord(folded, scores, matched);
+            } else {
+                searchWords(folded, queryWords, scores, matched);
+            }
+        }
+        return top(scores, matched, limit);
+    }
+
+    private void searchWord(String word, int[] scores, IntList matched) {
+        int end = prefixEnd(wordKeys, word);
+        for (int i = prefixStart(wordKeys, word); i < end; i++) {
+            score(scores, matched, wordDocs[i], wordIsFirst[i] ? NAME_PREFIX : WORD_PREFIX);
+        }
+        if (word.length() >= 3) {
+            // The rarest trigram of the word bounds the candidates; the folded name confirms them
+            int[] candidates = null;
+            for (int j = 0; j + 3 <= word.length(); j++) {
+                int[] docs = trigrams.getOrDefault(word.substring(j, j + 3), NO_DOCS);
+                if (candidates == null || docs.length < candidates.length) {
+                    candidates = docs;
+                }
+            }
+            for (int doc : candidates) {
+                if (scores[doc] == 0 && names[doc].contains(word)) {
+                    score(scores, matched, doc, SUBSTRING);
+                }
+            }
+        }
+    }
+
+    private void searchWords(String folded, String[] queryWords, int[] scores, IntList matched) {
+        // Candidates come from the longest word, usually the most selective one
+        String longest = queryWords[0];
+        for (String word : queryWords) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        int end = prefixEnd(wordKeys, longest);
+        for (int i = prefixStart(wordKeys, longest); i < end; i++) {
+            int doc = wordDocs[i];
+            if (scores[doc] == 0 && everyWordMatches(queryWords, nameWords[doc])) {
+                score(scores, matched, doc, names[doc].startsWith(folded) ? NAME_PREFIX : ALL_WORDS);
+            }
+        }
+    }
+
+    private static boolean everyWordMatches(String[] queryWords, String[] words) {
+        for (String queryWord : queryWords) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(queryWord)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void score(int[] scores, IntList matched, int doc, int score) {
+        if (scores[doc] == 0) {
+            matched.add(doc);
+        }
+        scores[doc] = Math.max(scores[doc], score);
+    }
+
+    private List<Currency> top(int[] scores, IntList matched, int limit) {
+        // Best score first, then tie-break rank, compared as plain longs. Only the best
+        // `limit` are kept sorted, so a one-letter query matching most of the catalog is not sorted whole
+        long[] best = new long[Math.min(limit, matched.size)];
+        int count = 0;
+        for (int i = 0; i < matched.size; i++) {
+            int doc = matched.values[i];
+            long key = ((long) (CODE_EXACT - scores[doc]) << 32) | rank[doc];
+            if (count == best.length && key >= best[count - 1]) {
+                continue;
+            }
+            int position = count < best.length ? count++ : count - 1;
+            while (position > 0 && best[position - 1] > key) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = key;
+        }
+        List<Currency> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(currencies.get(byRank[(int) best[i]]));
+        }
+        return results;
+    }
+
+    /**
+     * Index of the first key that starts with {@code prefix} or sorts after it.
+     */
+    private static int prefixStart(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index after the last key that starts with {@code prefix}.
+     */
+    private static int prefixEnd(String[] keys, String prefix) {
+        if (prefix.isEmpty()) {
+            return 0;
+        }
+        int low = prefixStart(keys, prefix);
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lower-cases {@code text}, removes accents, reads {@code đ} as {@code d} and joins the runs of
+     * letters and digits with single spaces.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        boolean wordBreak = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                wordBreak = true;
+                continue;
+            }
+            if (wordBreak && folded.length() > 0) {
+                folded.append(' ');
+            }
+            wordBreak = false;
+            c = Character.toLowerCase(c);
+            folded.append(c == 'đ' ? 'd' : c);
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String symbolKey(String symbol) {
+        return symbol != null ? symbol.strip().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private record Entry(String key, int doc, boolean first) {}
+
+    /**
+     * Growable list of ints, without boxing.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Adds {@code value} unless it was the last one added; values arrive in ascending order.
+         */
+        void addOnce(int value) {
+            if (size == 0 || values[size - 1] != value) {
+                add(value);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a {@link CurrencySearchIndex} in step with the current {@link CurrencySnapshot}.
+ * <p>
+ * The snapshot is rebuilt after every committed write, on this instance or another one, so the
+ * index follows writes without hooks of its own. It is brought up to date lazily: a search that
+ * finds a new snapshot rebuilds the index, unless only rates changed, in which case the existing
+ * index is kept and answers with the new rows.
+ */
+@Service
+public class CurrencySearchService {
+    
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+    
+    @Autowired
+    private CurrencyService currencyService;
+    
+    private volatile State state;
+    private final LongAdder builds = new LongAdder();
+    
+    /**
+     * Returns at most {@code limit} currencies matching {@code query}, best match first.
+     */
+    public List<Currency> search(String query, int limit) {
+        return currentIndex().search(query, limit);
+    }
+    
+    public CurrencySearchIndex currentIndex() {
+        CurrencySnapshot snapshot = snapshotCache.get();
+        if (snapshot == null) {
+            // Caching disabled: index the table as it is now
+            snapshot = new CurrencySnapshot(currencyService.getCatalogVersion(), currencyService.getAllCurrencies());
+        }
+        State current = state;
+        if (current != null && current.source == snapshot) {
+            return current.index;
+        }
+        synchronized (this) {
+            current = state;
+            if (current == null || current.source != snapshot) {
+                CurrencySearchIndex index;
+                if (current != null && current.index.indexes(snapshot.getCurrencies())) {
+                    index = current.index.withCurrencies(snapshot.getCurrencies());
+                } else {
+                    index = new CurrencySearchIndex(snapshot.getCurrencies());
+                    builds.increment();
+                }
+                current = new State(snapshot, index);
+                state = current;
+            }
+            return current.index;
+        }
+    }
+    
+    public long getBuildCount() {
+        return builds.sum();
+    }
+    
+    private record State(CurrencySnapshot source, CurrencySearchIndex index) {}
+}
@@ -1,46 +1,367 @@
 package com.currencymanagement.backend.service;
 
+import com.currencymanagement.backend.dto.BatchItemResult;
+import com.currencymanagement.backend.dto.BatchUpsertResponse;
+import com.currencymanagement.backend.dto.CreateCurrencyRequest;
+import com.currencymanagement.backend.dto.CurrencyChangeEvent;
+import com.currencymanagement.backend.dto.PagedResponse;
 import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.entity.CurrencyRateHistory;
+import com.currencymanagement.backend.repository.CurrencyBatchRepository;
+import com.currencymanagement.backend.repository.CurrencyKeysetRepository;
+import com.currencymanagement.backend.repository.CurrencyRateHistoryRepository;
 import com.currencymanagement.backend.repository.CurrencyRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(value = "currency.service", histogram = true)
 public class CurrencyService {
     
     @Autowired
     private CurrencyRepository currencyRepository;
     
+    @Autowired
+    private CurrencyBatchRepository currencyBatchRepository;
+    
+    @Autowired
+    private CurrencyKeysetRepository currencyKeysetRepository;
+    
+    @Autowired
+    private CurrencyRateHistoryRepository rateHistoryRepository;
+    
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private CurrencyChangeBroadcaster changeBroadcaster;
+    
+    @Autowired
+    private CurrencyClusterNotifier clusterNotifier;
+    
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+    
+    @Autowired
+    private CurrencyCandleService candleService;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Value("${currency.batch.chunk-size:1000}")
+    private int batchChunkSize;
+    
+    @Value("${currency.single-flight.timeout-ms:2000}")
+    private long singleFlightTimeoutMillis;
+    
+    // Lookups that miss the snapshot go to the database; a burst for one code shares a single query
+    private SingleFlight<String, Optional<Currency>> findByCodeFlight;
+    private SingleFlight<String, Boolean> existsByCodeFlight;
+    
+    @PostConstruct
+    void createFlights() {
+        findByCodeFlight = new SingleFlight<>(singleFlightTimeoutMillis);
+        existsByCodeFlight = new SingleFlight<>(singleFlightTimeoutMillis);
+    }
+    
+    /**
+     * Strong ETag identifying the current state of the catalog; changes after every committed write.
+     */
+    public String getCatalogETag() {
+        return catalogVersion.getETag();
+    }
+    
+    /**
+     * Current catalog version, the number behind {@link #getCatalogETag()}.
+     */
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+    
     public List<Currency> getAllCurrencies() {
+        CurrencySnapshot snapshot = snapshotCache.get();
+        if (snapshot != null) {
+            return snapshot.getCurrencies();
+        }
         return currencyRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Page<Currency> getAllCurrencies(Pageable pageable) {
         return currencyRepository.findAll(pageable);
     }
     
+    /**
+     * Returns the page following {@code after} in keyset order, without counting rows.
+     *
+     * @param after cursor from the previous page, or null for the first page
+     * @param withTotal whether to include a total row estimate
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    @Transactional(readOnly = true)
+    public PagedResponse<Currency> getCurrenciesAfter(CurrencySortField sortField, boolean descending,
+                                                      String after, int size, boolean withTotal) {
+        KeysetCursor cursor = after != null ? KeysetCursor.decode(after, sortField, descending) : null;
+        List<Currency> rows = currencyKeysetRepository.findPage(
+            sortField.getProperty(),
+            descending,
+            cursor != null ? cursor.getValue() : null,
+            cursor != null ? cursor.getId() : null,
+            size + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Currency last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(sortField, descending, sortField.valueOf(last), last.getId()).encode();
+        }
+        
+        long total = -1;
+        if (withTotal) {
+            CurrencySnapshot snapshot = snapshotCache.get();
+            total = snapshot != null ? snapshot.size() : currencyKeysetRepository.estimateCount();
+        }
+        return new PagedResponse<>(rows, size, cursor == null, nextCursor, total);
+    }
+    
     public Optional<Currency> getCurrencyByCode(String code) {
-        return currencyRepository.findByCode(code);
+        CurrencySnapshot snapshot = snapshotCache.get();
+        if (snapshot != null) {
+            return Optional.ofNullable(snapshot.findByCode(code));
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The entity must belong to the caller's persistence context, not to another caller's
+            return currencyRepository.findByCode(code);
+        }
+        return findByCodeFlight.execute(code, () -> currencyRepository.findByCode(code));
     }
     
     public Optional<Currency> getCurrencyById(Long id) {
+        CurrencySnapshot snapshot = snapshotCache.get();
+        if (snapshot != null) {
+            return Optional.ofNullable(snapshot.findById(id));
+        }
         return currencyRepository.findById(id);
     }
     
+    /**
+     * Creates or updates a currency. An update carrying a version fails with
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} if the row has moved past
+     * it; without a version it overwrites the row as it stands in this transaction.
+     * A rate history row is appended only when the rate of the code changes, stamped with the row's
+     * new {@code updated_at} so both come from the database clock.
+     */
+    @Transactional
     public Currency saveCurrency(Currency currency) {
-        return currencyRepository.save(currency);
+        // The persisted row rather than the snapshot, which may show rate ticks not written yet
+        Currency previous = currency.getId() != null
+            ? currencyRepository.findById(currency.getId()).orElse(null)
+            : null;
+        if (previous != null && currency.getVersion() == null) {
+            currency.setVersion(previous.getVersion());
+            currency.setCreatedAt(previous.getCreatedAt());
+        }
+        String previousCode = previous != null ? previous.getCode() : null;
+        BigDecimal previousRate = previous != null ? previous.getExchangeRate() : null;
+        
+        // Flushed so that updated_at has been set by the database
+        Currency saved = currencyRepository.saveAndFlush(currency);
+        if (!saved.getCode().equals(previousCode)
+                || previousRate.compareTo(saved.getExchangeRate().setScale(4, RoundingMode.HALF_UP)) != 0) {
+            rateHistoryRepository.save(new CurrencyRateHistory(
+                saved.getCode(), saved.getExchangeRate(), saved.getUpdatedAt()));
+        }
+        
+        List<CurrencyChangeEvent> changes = new ArrayList<>(2);
+        if (previousCode == null) {
+            changes.add(new CurrencyChangeEvent(CurrencyChangeEvent.Type.CREATED, saved.getCode(), saved.getExchangeRate()));
+        } else if (previousCode.equals(saved.getCode())) {
+            changes.add(new CurrencyChangeEvent(CurrencyChangeEvent.Type.UPDATED, saved.getCode(), saved.getExchangeRate()));
+        } else {
+            // A renamed code looks like a removal followed by an addition to subscribers
+            changes.add(new CurrencyChangeEvent(CurrencyChangeEvent.Type.DELETED, previousCode, null));
+            changes.add(new CurrencyChangeEvent(CurrencyChangeEvent.Type.CREATED, saved.getCode(), saved.getExchangeRate()));
+        }
+        afterWrite(changes);
+        return saved;
+    }
+    
+    /**
+     * Sets the rate of currency {@code id} if nobody has changed it since {@code expectedVersion},
+     * using one conditional {@code UPDATE} instead of a read followed by a full-entity save.
+     *
+     * @return the outcome, carrying the current row when the version has moved on;
+     *         empty when the currency does not exist
+     */
+    @Transactional
+    public Optional<CurrencyBatchRepository.RateUpdate> updateRate(Long id, long expectedVersion, BigDecimal exchangeRate) {
+        Optional<CurrencyBatchRepository.RateUpdate> result =
+            currencyBatchRepository.updateRateIfVersion(id, expectedVersion, exchangeRate);
+        result.filter(CurrencyBatchRepository.RateUpdate::applied).ifPresent(update -> afterWrite(List.of(
+            new CurrencyChangeEvent(CurrencyChangeEvent.Type.UPDATED, update.currency().getCode(),
+                update.currency().getExchangeRate()))));
+        return result;
+    }
+    
+    /**
+     * Returns the rate that was in effect for {@code code} at {@code asOf}.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CurrencyRateHistory> getRateAsOf(String code, LocalDateTime asOf) {
+        return rateHistoryRepository.findFirstByCodeAndEffectiveAtLessThanEqualOrderByEffectiveAtDesc(code, asOf);
+    }
+    
+    /**
+     * Returns at most {@code limit} rate changes of {@code code} within {@code [from, to]}, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<CurrencyRateHistory> getRateHistory(String code, LocalDateTime from, LocalDateTime to, int limit) {
+        return rateHistoryRepository.findByCodeAndEffectiveAtBetweenOrderByEffectiveAtAsc(
+            code, from, to, PageRequest.of(0, limit));
     }
     
     public boolean existsByCode(String code) {
-        return currencyRepository.existsByCode(code);
+        CurrencySnapshot snapshot = snapshotCache.get();
+        if (snapshot != null) {
+            return snapshot.findByCode(code) != null;
+        }
+        return existsByCodeFlight.execute(code, () -> currencyRepository.existsByCode(code));
     }
     
+    @Transactional
     public void deleteCurrency(Long id) {
+        Optional<Currency> existing = getCurrencyById(id);
         currencyRepository.deleteById(id);
+        afterWrite(existing
+            .map(currency -> List.of(new CurrencyChangeEvent(CurrencyChangeEvent.Type.DELETED, currency.getCode(), null)))
+            .orElse(List.of()));
+    }
+    
+    /**
+     * Creates or updates every item by code in a single transaction using batched SQL.
+     * Invalid items are reported and left out; when a code appears more than once the last item wins.
+     */
+    @Transactional
+    public BatchUpsertResponse upsertCurrencies(List<CreateCurrencyRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<String, Integer> lastIndexByCode = new HashMap<>(requests.size() * 2);
+        
+        for (int i = 0; i < requests.size(); i++) {
+            CreateCurrencyRequest request = requests.get(i);
+            String code = request != null && request.getCode() != null ? request.getCode().toUpperCase() : null;
+            String error = validateBatchItem(validator, request);
+            if (error != null) {
+                results[i] = new BatchItemResult(i, code, BatchItemResult.Status.FAILED, null, error);
+                continue;
+            }
+            Integer previous = lastIndexByCode.put(code, i);
+            if (previous != null) {
+                results[previous] = new BatchItemResult(previous, code, BatchItemResult.Status.SKIPPED, null,
+                    "Bị ghi đè bởi phần tử " + i + " có cùng mã tiền tệ");
+            }
+        }
+        
+        List<CurrencyBatchRepository.Row> rows = new ArrayList<>(lastIndexByCode.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] == null) {
+                CreateCurrencyRequest request = requests.get(i);
+                rows.add(new CurrencyBatchRepository.Row(
+                    request.getCode().toUpperCase(),
+                    request.getName(),
+                    request.getSymbol(),
+                    request.getExchangeRate()));
+            }
+        }
+        
+        if (!rows.isEmpty()) {
+            Map<String, CurrencyBatchRepository.UpsertOutcome> outcomes =
+                currencyBatchRepository.upsertByCode(rows, batchChunkSize);
+            List<CurrencyChangeEvent> changes = new ArrayList<>(rows.size());
+            for (int i = 0; i < requests.size(); i++) {
+                if (results[i] == null) {
+                    String code = requests.get(i).getCode().toUpperCase();
+                    CurrencyBatchRepository.UpsertOutcome outcome = outcomes.get(code);
+                    BatchItemResult.Status status = outcome.inserted()
+                        ? BatchItemResult.Status.CREATED
+                        : BatchItemResult.Status.UPDATED;
+                    results[i] = new BatchItemResult(i, code, status, outcome.id(), null);
+                    changes.add(new CurrencyChangeEvent(
+                        outcome.inserted() ? CurrencyChangeEvent.Type.CREATED : CurrencyChangeEvent.Type.UPDATED,
+                        code,
+                        requests.get(i).getExchangeRate()));
+                }
+            }
+            afterWrite(changes);
+        }
+        
+        return new BatchUpsertResponse(List.of(results));
+    }
+    
+    public SingleFlight<String, Optional<Currency>> getFindByCodeFlight() {
+        return findByCodeFlight;
+    }
+    
+    public SingleFlight<String, Boolean> getExistsByCodeFlight() {
+        return existsByCodeFlight;
+    }
+    
+    /**
+     * Registers everything that has to follow a committed write, in order: the snapshot is
+     * rebuilt and the catalog version bumped with it, so that change events never run ahead of reads.
+     * Other instances are notified through the database, on commit of the same transaction.
+     * Reads are pinned to the primary before anything else runs, so the rebuild sees the write.
+     * Rate ticks of the written codes that are still pending are dropped before the rebuild.
+     */
+    private void afterWrite(List<CurrencyChangeEvent> changes) {
+        clusterNotifier.notifyChanges(changes);
+        TransactionHooks.afterCommit(replicaLagGuard::markWrite);
+        snapshotCache.discardPendingRatesAfterCommit(changes.stream().map(CurrencyChangeEvent::getCode).toList());
+        snapshotCache.refreshAfterCommit();
+        TransactionHooks.afterCommit(() -> changes.forEach(changeBroadcaster::publish));
+        TransactionHooks.afterCommit(() -> candleService.record(changes, LocalDateTime.now()));
+    }
+    
+    /**
+     * Checks an item of a bulk write against the {@link CreateCurrencyRequest} constraints and the column limits.
+     *
+     * @return the reason the item cannot be written, or null if it is valid
+     */
+    static String validateBatchItem(Validator validator, CreateCurrencyRequest request) {
+        if (request == null) {
+            return "Phần tử không được để trống";
+        }
+        Set<ConstraintViolation<CreateCurrencyRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        // exchange_rate is NUMERIC(10, 4): an out-of-range value would abort the whole statement
+        BigDecimal rate = request.getExchangeRate().setScale(4, RoundingMode.HALF_EVEN);
+        if (rate.precision() - rate.scale() > 6) {
+            return "Tỷ giá hối đoái vượt quá giới hạn cho phép";
+        }
+        return null;
     }
-} 
\ No newline at end of file
+}
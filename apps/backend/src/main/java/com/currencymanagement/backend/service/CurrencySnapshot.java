@@ -0,0 +1,110 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, point-in-time view of the whole currencies table.
+ * <p>
+ * A snapshot is never modified after construction; writers build a new one and swap it in.
+ * Rows are copied on the way in so later changes to managed entities cannot leak into it.
+ */
+public final class CurrencySnapshot {
+
+    private final long version;
+    private final List<Currency> currencies;
+    private final Map<String, Currency> byCode;
+    private final Map<Long, Currency> byId;
+    private final RateTable rateTable;
+    private final int[] packedCodes;
+    private final long[] scaledRates;
+
+    public CurrencySnapshot(long version, List<Currency> rows) {
+        Currency[] copies = new Currency[rows.size()];
+        Map<String, Currency> codes = new HashMap<>(rows.size() * 2);
+        Map<Long, Currency> ids = new HashMap<>(rows.size() * 2);
+        int[] packed = new int[rows.size()];
+        long[] scaled = new long[rows.size()];
+        for (int i = 0; i < copies.length; i++) {
+            Currency copy = new Currency(rows.get(i));
+            copies[i] = copy;
+            codes.put(copy.getCode(), copy);
+            ids.put(copy.getId(), copy);
+            packed[i] = CurrencyBinaryEncoder.packCode(copy.getCode());
+            scaled[i] = copy.getExchangeRate().setScale(RateTable.RATE_SCALE, RoundingMode.HALF_EVEN)
+                .unscaledValue().longValueExact();
+        }
+        this.version = version;
+        this.currencies = List.of(copies);
+        this.byCode = Collections.unmodifiableMap(codes);
+        this.byId = Collections.unmodifiableMap(ids);
+        this.rateTable = new RateTable(this.currencies);
+        this.packedCodes = packed;
+        this.scaledRates = scaled;
+    }
+
+    /**
+     * Returns a copy of this snapshot with the given rates applied. Codes that are not in the
+     * snapshot are ignored.
+     */
+    public CurrencySnapshot withRates(long version, Map<String, BigDecimal> rates, LocalDateTime updatedAt) {
+        List<Currency> rows = new ArrayList<>(currencies.size());
+        for (Currency currency : currencies) {
+            BigDecimal rate = rates.get(currency.getCode());
+            if (rate != null) {
+                Currency copy = new Currency(currency);
+                copy.setExchangeRate(rate);
+                copy.setUpdatedAt(updatedAt);
+                currency = copy;
+            }
+            rows.add(currency);
+        }
+        return new CurrencySnapshot(version, rows);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Currency> getCurrencies() {
+        return currencies;
+    }
+
+    public Currency findByCode(String code) {
+        return byCode.get(code);
+    }
+
+    public Currency findById(Long id) {
+        return byId.get(id);
+    }
+
+    public RateTable getRateTable() {
+        return rateTable;
+    }
+
+    /**
+     * Codes in {@link #getCurrencies()} order packed by {@link CurrencyBinaryEncoder#packCode}; do not modify.
+     */
+    int[] getPackedCodes() {
+        return packedCodes;
+    }
+
+    /**
+     * Rates in {@link #getCurrencies()} order, unscaled at {@link RateTable#RATE_SCALE} places; do not modify.
+     */
+    long[] getScaledRates() {
+        return scaledRates;
+    }
+
+    public int size() {
+        return currencies.size();
+    }
+}
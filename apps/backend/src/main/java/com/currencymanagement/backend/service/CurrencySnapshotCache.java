@@ -0,0 +1,224 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.repository.CurrencyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copy-on-write cache holding a {@link CurrencySnapshot} of the currencies table.
+ * <p>
+ * Reads never block: they dereference the current snapshot. Writers rebuild the snapshot
+ * from the database once their transaction has committed and publish it with a single
+ * reference swap, so readers see either the old or the new table, never a mix.
+ * <p>
+ * Every change also bumps the {@link CatalogVersion}, here and under the same lock as the swap,
+ * so a snapshot carries exactly the catalog version (and ETag) that describes it. The snapshot
+ * is published before the bump, so a version is never handed out ahead of its rows.
+ * <p>
+ * Rates accepted by {@link RateTickIngestionService} but not yet written are kept as an
+ * overlay that is applied on top of every snapshot until the write has committed. A rate
+ * written by any other path supersedes the overlay entries for its code that were pending
+ * before it, see {@link #discardPendingRatesAfterCommit}.
+ */
+@Component
+public class CurrencySnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencySnapshotCache.class);
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${currency.cache.enabled:true}")
+    private boolean enabled;
+
+    private final AtomicReference<CurrencySnapshot> current = new AtomicReference<>();
+    // A lock, not a monitor: rebuilds query the database while holding it
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Map<String, BigDecimal> pendingRates = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current snapshot, loading it on first use, or {@code null} when caching is disabled.
+     */
+    public CurrencySnapshot get() {
+        if (!enabled) {
+            return null;
+        }
+        CurrencySnapshot snapshot = current.get();
+        if (snapshot != null) {
+            hits.increment();
+            return snapshot;
+        }
+        misses.increment();
+        rebuildLock.lock();
+        try {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : rebuild(catalogVersion.get());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Schedules a rebuild and a catalog version bump for when the surrounding transaction commits,
+     * or runs them immediately when no transaction is active.
+     */
+    public void refreshAfterCommit() {
+        TransactionHooks.afterCommit(this::refresh);
+    }
+
+    /**
+     * Reloads the table, swaps in a new snapshot and bumps the catalog version. On failure the
+     * cache is emptied so that reads fall back to the database until the next successful load;
+     * the version is bumped either way. With caching disabled only the version is bumped.
+     */
+    public void refresh() {
+        rebuildLock.lock();
+        try {
+            if (enabled) {
+                rebuild(catalogVersion.get() + 1);
+            }
+        } catch (RuntimeException e) {
+            current.set(null);
+            log.warn("Currency snapshot rebuild failed, falling back to database reads", e);
+        } finally {
+            catalogVersion.increment();
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Makes rates that are not persisted yet visible to readers immediately and bumps the catalog
+     * version. With caching disabled the rates are only tracked, so that a later write can still
+     * supersede them.
+     */
+    public void applyPendingRates(Map<String, BigDecimal> rates) {
+        rebuildLock.lock();
+        try {
+            pendingRates.putAll(rates);
+            CurrencySnapshot snapshot = enabled ? current.get() : null;
+            if (snapshot != null) {
+                current.set(snapshot.withRates(catalogVersion.get() + 1, rates, LocalDateTime.now()));
+            }
+        } finally {
+            catalogVersion.increment();
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Drops overlay entries once they have been committed, unless a newer rate replaced them meanwhile.
+     */
+    public void releasePendingRates(Map<String, BigDecimal> persisted) {
+        // Under the lock so a rebuild cannot read the table before the commit and the overlay after it
+        rebuildLock.lock();
+        try {
+            persisted.forEach(pendingRates::remove);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Whether {@code rate} is still the pending rate for {@code code}: neither a newer tick nor a
+     * committed write of another path has replaced it. Compared by identity, as every accepted tick
+     * is its own instance.
+     */
+    public boolean isPendingRate(String code, BigDecimal rate) {
+        return pendingRates.get(code) == rate;
+    }
+
+    /**
+     * Drops the rates pending now for {@code codes} once the surrounding transaction, which writes
+     * those codes, has committed. A tick accepted before the write must neither be shown over the
+     * committed rate nor be flushed over it later; ticks accepted after this call stay pending.
+     * Call before {@link #refreshAfterCommit()} so the rebuild no longer applies them.
+     */
+    public void discardPendingRatesAfterCommit(Collection<String> codes) {
+        if (pendingRates.isEmpty()) {
+            return;
+        }
+        Map<String, BigDecimal> superseded = new HashMap<>();
+        for (String code : codes) {
+            BigDecimal rate = pendingRates.get(code);
+            if (rate != null) {
+                superseded.put(code, rate);
+            }
+        }
+        if (superseded.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            rebuildLock.lock();
+            try {
+                superseded.forEach((code, rate) -> pendingRates.computeIfPresent(code, (key, pending) -> pending == rate ? null : pending));
+            } finally {
+                rebuildLock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Loads the table into a snapshot stamped with {@code version}. Only called under the lock, which
+     * every catalog version bump also holds, so {@code get() + 1} is the value the next bump produces.
+     */
+    private CurrencySnapshot rebuild(long version) {
+        // Runs in its own transaction: afterCommit callbacks must not reuse the finished one
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        List<Currency> rows = template.execute(status -> currencyRepository.findAll());
+
+        rebuilds.incrementAndGet();
+        CurrencySnapshot snapshot = new CurrencySnapshot(version, rows);
+        if (!pendingRates.isEmpty()) {
+            snapshot = snapshot.withRates(version, Map.copyOf(pendingRates), LocalDateTime.now());
+        }
+        current.set(snapshot);
+        return snapshot;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getRebuildCount() {
+        return rebuilds.get();
+    }
+}
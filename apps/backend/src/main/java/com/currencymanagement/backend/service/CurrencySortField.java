@@ -0,0 +1,57 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Columns that currency listings may be sorted by. Each one is backed by an index
+ * ending in {@code id}, so both offset and keyset pages can be read in index order.
+ */
+public enum CurrencySortField {
+    
+    ID("id", Currency::getId, Long::valueOf),
+    CODE("code", Currency::getCode, Function.identity()),
+    NAME("name", Currency::getName, Function.identity()),
+    EXCHANGE_RATE("exchangeRate", Currency::getExchangeRate, BigDecimal::new),
+    CREATED_AT("createdAt", Currency::getCreatedAt, LocalDateTime::parse);
+    
+    private final String property;
+    private final Function<Currency, Object> getter;
+    private final Function<String, Object> parser;
+    
+    <T> CurrencySortField(String property, Function<Currency, T> getter, Function<String, T> parser) {
+        this.property = property;
+        this.getter = getter::apply;
+        this.parser = parser::apply;
+    }
+    
+    /**
+     * Entity property name, as accepted by the {@code sortBy} request parameter.
+     */
+    public String getProperty() {
+        return property;
+    }
+    
+    Object valueOf(Currency currency) {
+        return getter.apply(currency);
+    }
+    
+    Object parse(String value) {
+        return parser.apply(value);
+    }
+    
+    /**
+     * Returns the field for a {@code sortBy} value, or {@code null} if sorting by it is not allowed.
+     */
+    public static CurrencySortField fromProperty(String property) {
+        for (CurrencySortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.currencymanagement.backend.service;
+
+/**
+ * Line-oriented formats for bulk export and import.
+ */
+public enum DataFormat {
+    
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv;charset=UTF-8");
+    
+    private final String parameter;
+    private final String mediaType;
+    
+    DataFormat(String parameter, String mediaType) {
+        this.parameter = parameter;
+        this.mediaType = mediaType;
+    }
+    
+    /**
+     * Value of the {@code format} request parameter, also used as file extension.
+     */
+    public String getParameter() {
+        return parameter;
+    }
+    
+    public String getMediaType() {
+        return mediaType;
+    }
+    
+    /**
+     * Returns the format for a {@code format} value, or {@code null} if it is not supported.
+     */
+    public static DataFormat fromParameter(String parameter) {
+        for (DataFormat format : values()) {
+            if (format.parameter.equalsIgnoreCase(parameter)) {
+                return format;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the format for a {@code Content-Type} header, ignoring its parameters,
+     * or {@code null} if it is not supported.
+     */
+    public static DataFormat fromMediaType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.split(";", 2)[0].trim();
+        for (DataFormat format : values()) {
+            if (format.mediaType.split(";", 2)[0].equalsIgnoreCase(type)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.currencymanagement.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Opaque position in the change feed of {@code GET /api/currencies/changes}: the {@code updated_at}
+ * and id after which changes are still to be delivered.
+ * <p>
+ * Currencies are ordered by {@code (updated_at, id)}, tombstones by their deletion time only, so
+ * a tombstone deleted at {@code changedAt} counts as already delivered.
+ */
+record DeltaCursor(LocalDateTime changedAt, long id) implements Comparable<DeltaCursor> {
+    
+    private static final char SEPARATOR = '\n';
+    private static final Comparator<DeltaCursor> ORDER =
+        Comparator.comparing(DeltaCursor::changedAt).thenComparingLong(DeltaCursor::id);
+    
+    /**
+     * The cursor just before {@code time}: every currency and tombstone stamped at or after it is still to come.
+     */
+    static DeltaCursor before(LocalDateTime time) {
+        // Postgres timestamps have microsecond precision
+        return new DeltaCursor(time.minusNanos(1000), Long.MAX_VALUE);
+    }
+    
+    @Override
+    public int compareTo(DeltaCursor other) {
+        return ORDER.compare(this, other);
+    }
+    
+    String encode() {
+        String raw = changedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static DeltaCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new DeltaCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
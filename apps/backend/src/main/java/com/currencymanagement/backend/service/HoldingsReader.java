@@ -0,0 +1,209 @@
+package com.currencymanagement.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reads a valuation request, {@code {"target": "USD", "holdings": [{"code": "EUR", "amount": 100.5}, ...]}},
+ * straight into parallel primitive arrays, without binding a DTO per holding.
+ * <p>
+ * Codes are resolved against the given {@link RateTable} while reading, so every holding of a request
+ * is priced against the same rates; the fields may come in any order. Amounts are held unscaled at
+ * {@link RateTable#AMOUNT_SCALE} places, rounded HALF_EVEN, and may be JSON numbers or strings.
+ * Unknown codes and amounts that do not fit are marked on their line instead of failing the request.
+ */
+public final class HoldingsReader {
+
+    public static final byte OK = 0;
+    public static final byte UNKNOWN_CURRENCY = 1;
+    public static final byte AMOUNT_OUT_OF_RANGE = 2;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long AMOUNT_FACTOR = 10_000L;
+    private static final long MAX_WHOLE_AMOUNT = Long.MAX_VALUE / AMOUNT_FACTOR;
+    // Integer digits of the largest amount that fits a long at AMOUNT_SCALE
+    private static final int MAX_INTEGER_DIGITS = 15;
+
+    private HoldingsReader() {
+    }
+
+    /**
+     * Reads one request object from {@code parser}.
+     *
+     * @throws IllegalArgumentException if the body is not a valid request or has more than {@code maxHoldings} holdings
+     */
+    public static Holdings read(JsonParser parser, RateTable rates, int maxHoldings) throws IOException {
+        try {
+            Holdings holdings = new Holdings(Math.min(INITIAL_CAPACITY, maxHoldings));
+            expect(parser.nextToken(), JsonToken.START_OBJECT, "body");
+            boolean sawHoldings = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (field.equals("target")) {
+                    expect(token, JsonToken.VALUE_STRING, "target");
+                    holdings.target = parser.getText().toUpperCase(Locale.ROOT);
+                } else if (field.equals("holdings")) {
+                    expect(token, JsonToken.START_ARRAY, "holdings");
+                    readHoldings(parser, rates, maxHoldings, holdings);
+                    sawHoldings = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the request object");
+            }
+            if (holdings.target == null || !sawHoldings) {
+                throw new IllegalArgumentException("target and holdings are required");
+            }
+            return holdings;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static void readHoldings(JsonParser parser, RateTable rates, int maxHoldings, Holdings holdings) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(token, JsonToken.START_OBJECT, "holding");
+            if (holdings.count == maxHoldings) {
+                throw new IllegalArgumentException("More than " + maxHoldings + " holdings");
+            }
+            String code = null;
+            long amount = 0;
+            byte status = OK;
+            boolean sawAmount = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                token = parser.nextToken();
+                if (field.equals("code")) {
+                    expect(token, JsonToken.VALUE_STRING, "code");
+                    code = parser.getText();
+                } else if (field.equals("amount")) {
+                    sawAmount = true;
+                    if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                        long whole = parser.getLongValue();
+                        if (whole > MAX_WHOLE_AMOUNT || whole < -MAX_WHOLE_AMOUNT) {
+                            status = AMOUNT_OUT_OF_RANGE;
+                        } else {
+                            amount = whole * AMOUNT_FACTOR;
+                        }
+                    } else {
+                        BigDecimal decimal = readDecimal(parser, token);
+                        // Checked on the digit count first, so that an exponent like 1e-999999999 is never expanded
+                        int integerDigits = decimal.precision() - decimal.scale();
+                        if (integerDigits > MAX_INTEGER_DIGITS) {
+                            status = AMOUNT_OUT_OF_RANGE;
+                        } else if (integerDigits < -RateTable.AMOUNT_SCALE) {
+                            amount = 0;
+                        } else {
+                            try {
+                                amount = decimal.setScale(RateTable.AMOUNT_SCALE, RoundingMode.HALF_EVEN)
+                                    .unscaledValue().longValueExact();
+                            } catch (ArithmeticException e) {
+                                status = AMOUNT_OUT_OF_RANGE;
+                            }
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (code == null || !sawAmount) {
+                throw new IllegalArgumentException("Holding " + holdings.count + " needs a code and an amount");
+            }
+            holdings.add(rates, code, status == OK ? amount : 0, status);
+        }
+    }
+
+    private static BigDecimal readDecimal(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        expect(token, JsonToken.VALUE_STRING, "amount");
+        try {
+            return new BigDecimal(parser.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount is not a number: " + parser.getText());
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, String what) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("Expected " + what + " to be " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * Holdings of one request, one array slot per line in request order.
+     */
+    public static final class Holdings {
+
+        private String target;
+        private int count;
+        private String[] codes;
+        private int[] ordinals;
+        private long[] amounts;
+        private byte[] status;
+
+        Holdings(int capacity) {
+            codes = new String[capacity];
+            ordinals = new int[capacity];
+            amounts = new long[capacity];
+            status = new byte[capacity];
+        }
+
+        private void add(RateTable rates, String code, long amount, byte lineStatus) {
+            if (count == codes.length) {
+                int capacity = Math.max(codes.length * 2, INITIAL_CAPACITY);
+                codes = Arrays.copyOf(codes, capacity);
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                status = Arrays.copyOf(status, capacity);
+            }
+            int ordinal = rates.indexOf(code.toUpperCase(Locale.ROOT));
+            // Known codes share the table's string, so the parsed copy can be collected right away
+            codes[count] = ordinal >= 0 ? rates.codeAt(ordinal) : code;
+            ordinals[count] = ordinal;
+            amounts[count] = amount;
+            status[count] = ordinal < 0 ? UNKNOWN_CURRENCY : lineStatus;
+            count++;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        String codeAt(int line) {
+            return codes[line];
+        }
+
+        int ordinalAt(int line) {
+            return ordinals[line];
+        }
+
+        long amountAt(int line) {
+            return amounts[line];
+        }
+
+        byte statusAt(int line) {
+            return status[line];
+        }
+
+        void fail(int line, byte lineStatus) {
+            status[line] = lineStatus;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.currencymanagement.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort value and id of the last row returned.
+ * <p>
+ * The token also records the sort it was issued for, so it cannot be replayed against a different ordering.
+ */
+public final class KeysetCursor {
+    
+    private static final char SEPARATOR = '\n';
+    
+    private final CurrencySortField sortField;
+    private final boolean descending;
+    private final Object value;
+    private final long id;
+    
+    KeysetCursor(CurrencySortField sortField, boolean descending, Object value, long id) {
+        this.sortField = sortField;
+        this.descending = descending;
+        this.value = value;
+        this.id = id;
+    }
+    
+    public Object getValue() {
+        return value;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String encode() {
+        String raw = sortField.name() + SEPARATOR + (descending ? "d" : "a") + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a token issued for the given sort.
+     *
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    public static KeysetCursor decode(String token, CurrencySortField sortField, boolean descending) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split(String.valueOf(SEPARATOR), 4);
+        if (parts.length != 4
+                || !parts[0].equals(sortField.name())
+                || !parts[1].equals(descending ? "d" : "a")) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        try {
+            return new KeysetCursor(sortField, descending, sortField.parse(parts[3]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
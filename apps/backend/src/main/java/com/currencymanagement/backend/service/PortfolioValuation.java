@@ -0,0 +1,248 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.ValuationResponse;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Values of a basket of holdings in one target currency, all priced against the same {@link RateTable}.
+ * <p>
+ * Each line is converted with {@link RateTable#convert}, so it equals what {@code /api/convert} returns
+ * for the same amount. The total is the exact sum of the line values, carried into a BigInteger if it
+ * leaves the range of a long. Lines with an unknown code or an amount or value out of range are
+ * reported with an error and left out of the total.
+ * <p>
+ * Large baskets are split into chunks valued in parallel; chunks only write their own slots of the
+ * value array, and the subtotals are added in chunk order, so the result does not depend on the split.
+ */
+public final class PortfolioValuation {
+
+    public static final byte VALUE_OUT_OF_RANGE = 3;
+
+    private static final String[] ERRORS = {
+        null,
+        "Không tìm thấy tiền tệ",
+        "Số tiền vượt quá giới hạn",
+        "Giá trị quy đổi vượt quá giới hạn"
+    };
+
+    // Longest plain rendering of a long at AMOUNT_SCALE: sign, 19 digits, point and leading zero
+    private static final int NUMBER_CHARS = 24;
+
+    private final String target;
+    private final long catalogVersion;
+    private final HoldingsReader.Holdings holdings;
+    private final long[] values;
+    private final BigDecimal total;
+    private final int failed;
+
+    private PortfolioValuation(String target, long catalogVersion, HoldingsReader.Holdings holdings,
+                               long[] values, BigDecimal total, int failed) {
+        this.target = target;
+        this.catalogVersion = catalogVersion;
+        this.holdings = holdings;
+        this.values = values;
+        this.total = total;
+        this.failed = failed;
+    }
+
+    /**
+     * Values every holding in the currency at {@code target}, in chunks of {@code chunkSize} lines.
+     * Chunks after the first go to {@code executor} while the caller values the first one; with a null
+     * executor everything runs on the caller.
+     */
+    public static PortfolioValuation value(HoldingsReader.Holdings holdings, RateTable rates, int target,
+                                           long catalogVersion, int chunkSize, ExecutorService executor) {
+        int size = holdings.size();
+        long[] values = new long[size];
+        Subtotal total = new Subtotal();
+        if (executor == null || size <= chunkSize) {
+            for (int start = 0; start < size; start += chunkSize) {
+                total.add(valueChunk(holdings, rates, target, values, start, Math.min(size, start + chunkSize)));
+            }
+        } else {
+            List<Future<Subtotal>> chunks = new ArrayList<>(size / chunkSize + 1);
+            for (int start = chunkSize; start < size; start += chunkSize) {
+                int from = start;
+                int to = Math.min(size, start + chunkSize);
+                chunks.add(executor.submit(() -> valueChunk(holdings, rates, target, values, from, to)));
+            }
+            try {
+                total.add(valueChunk(holdings, rates, target, values, 0, chunkSize));
+                for (Future<Subtotal> chunk : chunks) {
+                    total.add(join(chunk));
+                }
+            } finally {
+                for (Future<Subtotal> chunk : chunks) {
+                    chunk.cancel(false);
+                }
+            }
+        }
+        return new PortfolioValuation(rates.codeAt(target), catalogVersion, holdings, values, total.toDecimal(), total.failed);
+    }
+
+    private static Subtotal valueChunk(HoldingsReader.Holdings holdings, RateTable rates, int target,
+                                       long[] values, int from, int to) {
+        Subtotal subtotal = new Subtotal();
+        for (int line = from; line < to; line++) {
+            if (holdings.statusAt(line) != HoldingsReader.OK) {
+                subtotal.failed++;
+                continue;
+            }
+            long value;
+            try {
+                value = rates.convert(holdings.amountAt(line), holdings.ordinalAt(line), target);
+            } catch (ArithmeticException e) {
+                holdings.fail(line, VALUE_OUT_OF_RANGE);
+                subtotal.failed++;
+                continue;
+            }
+            values[line] = value;
+            subtotal.add(value);
+        }
+        return subtotal;
+    }
+
+    private static Subtotal join(Future<Subtotal> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while valuing holdings", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Valuing holdings failed", e.getCause());
+        }
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Writes the result as JSON in the shape of {@link ValuationResponse}, one line at a time without
+     * building a DTO per line. Amounts and values are formatted straight from their unscaled longs, and
+     * lines that failed carry an {@code error} instead of a {@code value}. The stream is flushed but not closed.
+     */
+    public void writeTo(OutputStream out, JsonFactory jsonFactory) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+        char[] number = new char[NUMBER_CHARS];
+
+        generator.writeStartObject();
+        generator.writeStringField("target", target);
+        generator.writeNumberField("catalogVersion", catalogVersion);
+        generator.writeNumberField("holdings", values.length);
+        generator.writeNumberField("failed", failed);
+        generator.writeNumberField("total", total);
+        generator.writeArrayFieldStart("lines");
+        for (int line = 0; line < values.length; line++) {
+            byte status = holdings.statusAt(line);
+            generator.writeStartObject();
+            generator.writeStringField("code", holdings.codeAt(line));
+            if (status != HoldingsReader.AMOUNT_OUT_OF_RANGE) {
+                generator.writeFieldName("amount");
+                writeScaled(generator, holdings.amountAt(line), number);
+            }
+            if (status == HoldingsReader.OK) {
+                generator.writeFieldName("value");
+                writeScaled(generator, values[line], number);
+            } else {
+                generator.writeStringField("error", ERRORS[status]);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    /**
+     * Writes an unscaled value as a plain decimal with {@link RateTable#AMOUNT_SCALE} places,
+     * the same text as {@code BigDecimal.valueOf(unscaled, AMOUNT_SCALE).toPlainString()}.
+     */
+    private static void writeScaled(JsonGenerator generator, long unscaled, char[] buffer) throws IOException {
+        // Digits are taken from the negated value, which also covers Long.MIN_VALUE
+        long remaining = unscaled < 0 ? unscaled : -unscaled;
+        int position = buffer.length;
+        for (int i = 0; i < RateTable.AMOUNT_SCALE; i++) {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (unscaled < 0) {
+            buffer[--position] = '-';
+        }
+        generator.writeNumber(buffer, position, buffer.length - position);
+    }
+
+    /**
+     * Exact running sum of unscaled values: a long until it would overflow, then spilled into a BigInteger.
+     */
+    private static final class Subtotal {
+
+        private long sum;
+        private BigInteger spilled;
+        private int failed;
+
+        void add(long value) {
+            long next = sum + value;
+            // Overflow iff both operands have the sign opposite to the result (Math.addExact without the throw)
+            if (((sum ^ next) & (value ^ next)) < 0) {
+                spilled = spilled == null ? BigInteger.valueOf(sum) : spilled.add(BigInteger.valueOf(sum));
+                sum = value;
+            } else {
+                sum = next;
+            }
+        }
+
+        void add(Subtotal other) {
+            add(other.sum);
+            if (other.spilled != null) {
+                spilled = spilled == null ? other.spilled : spilled.add(other.spilled);
+            }
+            failed += other.failed;
+        }
+
+        BigDecimal toDecimal() {
+            if (spilled == null) {
+                return BigDecimal.valueOf(sum, RateTable.AMOUNT_SCALE);
+            }
+            return new BigDecimal(spilled.add(BigInteger.valueOf(sum)), RateTable.AMOUNT_SCALE);
+        }
+    }
+}
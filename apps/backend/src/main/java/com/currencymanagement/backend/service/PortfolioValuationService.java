@@ -0,0 +1,135 @@
+package com.currencymanagement.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prices baskets of holdings in one target currency, see {@link PortfolioValuation}.
+ * <p>
+ * The current {@link CurrencySnapshot} is captured once per request, before the body is read, and
+ * every line is priced from its rate table, so a rate update that commits mid-request affects either
+ * all lines or none. The catalog version reported is the one stamped on that snapshot, so it matches
+ * the ETag of a catalog read of the same rates. Without the cache the version is read around the rows;
+ * a write whose commit is not yet followed by its version bump can still go unnoticed there.
+ * <p>
+ * Baskets larger than {@code currency.valuation.chunk-size} are valued in parallel on a small pool
+ * shared by all requests.
+ */
+@Service
+public class PortfolioValuationService {
+
+    private static final int MAX_VERSION_READS = 3;
+
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${currency.valuation.max-holdings:2000000}")
+    private int maxHoldings;
+
+    @Value("${currency.valuation.chunk-size:10000}")
+    private int chunkSize;
+
+    // 0 = one per available processor
+    @Value("${currency.valuation.threads:0}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    private final LongAdder valuedLines = new LongAdder();
+    private final LongAdder failedLines = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (poolSize < 2) {
+            // The caller values a chunk itself, so a single worker would only add hand-offs
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(poolSize - 1, runnable -> {
+            Thread thread = new Thread(runnable, "currency-valuation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads a valuation request from {@code in} and values it.
+     *
+     * @return empty if the target currency is unknown or has no usable rate
+     * @throws IllegalArgumentException if the body is not a valid request or has too many holdings
+     */
+    public Optional<PortfolioValuation> value(InputStream in) throws IOException {
+        RateTable rates;
+        long version;
+        CurrencySnapshot snapshot = snapshotCache.get();
+        if (snapshot != null) {
+            // Stamped with the catalog version when it was swapped in, overlaid rate ticks included
+            rates = snapshot.getRateTable();
+            version = snapshot.getVersion();
+        } else {
+            long after;
+            int attempts = 0;
+            do {
+                // Retried while a write lands between the reads; if writes keep landing, the version
+                // reported is still read before the rows, so it is never newer than the rates
+                version = currencyService.getCatalogVersion();
+                rates = new RateTable(currencyService.getAllCurrencies());
+                after = currencyService.getCatalogVersion();
+            } while (after != version && ++attempts < MAX_VERSION_READS);
+        }
+
+        HoldingsReader.Holdings holdings;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            holdings = HoldingsReader.read(parser, rates, maxHoldings);
+        }
+        int target = rates.indexOf(holdings.getTarget());
+        if (target < 0) {
+            return Optional.empty();
+        }
+
+        PortfolioValuation valuation = PortfolioValuation.value(holdings, rates, target, version, chunkSize, executor);
+        valuedLines.add(valuation.size() - valuation.getFailed());
+        failedLines.add(valuation.getFailed());
+        return Optional.of(valuation);
+    }
+
+    public void write(PortfolioValuation valuation, OutputStream out) throws IOException {
+        valuation.writeTo(out, objectMapper.getFactory());
+    }
+
+    public long getValuedLineCount() {
+        return valuedLines.sum();
+    }
+
+    public long getFailedLineCount() {
+        return failedLines.sum();
+    }
+}
@@ -0,0 +1,181 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable table of USD-relative exchange rates held as fixed-point longs.
+ * <p>
+ * Each currency gets a compact ordinal in {@code [0, size())}. Rates are stored at
+ * {@link #RATE_SCALE} decimal places, which matches the {@code exchange_rate} column exactly,
+ * so building the table never loses precision. Currencies with a non-positive rate cannot
+ * take part in a conversion and are left out.
+ * <p>
+ * Rounding rules of the conversion kernel:
+ * <ul>
+ *   <li>amounts and results are fixed-point values with {@link #AMOUNT_SCALE} decimal places;</li>
+ *   <li>{@code result = amount * rate(to) / rate(from)} is computed with a 128-bit intermediate
+ *       product and rounded once, HALF_EVEN, so it equals the exact quotient rounded to the scale;</li>
+ *   <li>the reported cross rate {@code rate(to) / rate(from)} is rounded HALF_EVEN to
+ *       {@link #CROSS_RATE_SCALE} places and is informational only; results are not derived from it.</li>
+ * </ul>
+ */
+public final class RateTable {
+
+    public static final int RATE_SCALE = 4;
+    public static final int AMOUNT_SCALE = 4;
+    public static final int CROSS_RATE_SCALE = 8;
+
+    private static final long CROSS_RATE_FACTOR = 100_000_000L;
+
+    private final String[] codes;
+    private final long[] rates;
+    private final Map<String, Integer> ordinals;
+
+    public RateTable(List<Currency> currencies) {
+        String[] codeBuffer = new String[currencies.size()];
+        long[] rateBuffer = new long[currencies.size()];
+        Map<String, Integer> index = new HashMap<>(currencies.size() * 2);
+        int n = 0;
+        for (Currency currency : currencies) {
+            BigDecimal rate = currency.getExchangeRate();
+            if (rate == null || rate.signum() <= 0) {
+                continue;
+            }
+            codeBuffer[n] = currency.getCode();
+            rateBuffer[n] = rate.setScale(RATE_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+            index.put(currency.getCode(), n);
+            n++;
+        }
+        this.codes = Arrays.copyOf(codeBuffer, n);
+        this.rates = Arrays.copyOf(rateBuffer, n);
+        this.ordinals = index;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Returns the ordinal of the given ISO code, or {@code -1} if the table does not contain it.
+     */
+    public int indexOf(String code) {
+        Integer ordinal = ordinals.get(code);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public String codeAt(int ordinal) {
+        return codes[ordinal];
+    }
+
+    /**
+     * Unscaled USD-relative rate at {@link #RATE_SCALE} places.
+     */
+    public long rateAt(int ordinal) {
+        return rates[ordinal];
+    }
+
+    /**
+     * Cross rate from one ordinal to another, unscaled at {@link #CROSS_RATE_SCALE} places.
+     */
+    public long crossRate(int from, int to) {
+        return crossRate(rates[from], rates[to]);
+    }
+
+    /**
+     * Cross rate between two unscaled USD-relative rates, unscaled at {@link #CROSS_RATE_SCALE} places.
+     */
+    public static long crossRate(long rateFrom, long rateTo) {
+        // rates are at most 10 digits, so rate * 10^8 stays below 2^63
+        return divideRounded(0L, rateTo * CROSS_RATE_FACTOR, rateFrom);
+    }
+
+    /**
+     * Converts an amount unscaled at {@link #AMOUNT_SCALE} places, returning the result at the same scale.
+     *
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public long convert(long amount, int from, int to) {
+        if (from == to || amount == 0) {
+            return amount;
+        }
+        boolean negative = amount < 0;
+        long magnitude = negative ? -amount : amount;
+        if (magnitude < 0) {
+            throw new ArithmeticException("Amount out of range");
+        }
+        long rateTo = rates[to];
+        long hi = Math.multiplyHigh(magnitude, rateTo);
+        long lo = magnitude * rateTo;
+        long result = divideRounded(hi, lo, rates[from]);
+        if (result < 0) {
+            throw new ArithmeticException("Conversion result out of range");
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Divides the unsigned 128-bit value {@code hi:lo} by a positive divisor, rounding HALF_EVEN.
+     */
+    private static long divideRounded(long hi, long lo, long divisor) {
+        if (Long.compareUnsigned(hi, divisor) >= 0) {
+            throw new ArithmeticException("Conversion result out of range");
+        }
+        long quotient = divideUnsigned128(hi, lo, divisor);
+        long remainder = lo - quotient * divisor;
+        // remainder < divisor < 2^63, so doubling it cannot wrap past 2^64
+        int half = Long.compareUnsigned(remainder << 1, divisor);
+        if (half > 0 || (half == 0 && (quotient & 1L) != 0)) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    /**
+     * Unsigned 128-by-64 bit division (Knuth algorithm D with two 32-bit digits).
+     * Requires {@code hi < divisor} so that the quotient fits in 64 bits.
+     */
+    private static long divideUnsigned128(long hi, long lo, long divisor) {
+        if (hi == 0 && lo >= 0) {
+            return lo / divisor;
+        }
+        final long base = 1L << 32;
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long un32 = shift == 0 ? hi : (hi << shift) | (lo >>> (64 - shift));
+        long un10 = lo << shift;
+
+        long vn1 = v >>> 32;
+        long vn0 = v & 0xFFFFFFFFL;
+        long un1 = un10 >>> 32;
+        long un0 = un10 & 0xFFFFFFFFL;
+
+        long q1 = Long.divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while (q1 >= base || Long.compareUnsigned(q1 * vn0, (rhat << 32) | un1) > 0) {
+            q1--;
+            rhat += vn1;
+            if (rhat >= base) {
+                break;
+            }
+        }
+
+        long un21 = (un32 << 32) + un1 - q1 * v;
+        long q0 = Long.divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while (q0 >= base || Long.compareUnsigned(q0 * vn0, (rhat << 32) | un0) > 0) {
+            q0--;
+            rhat += vn1;
+            if (rhat >= base) {
+                break;
+            }
+        }
+        return (q1 << 32) | q0;
+    }
+}
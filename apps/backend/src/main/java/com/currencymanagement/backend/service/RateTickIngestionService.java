@@ -0,0 +1,278 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.BatchItemResult;
+import com.currencymanagement.backend.dto.CurrencyChangeEvent;
+import com.currencymanagement.backend.dto.RateTick;
+import com.currencymanagement.backend.dto.TickIngestResponse;
+import com.currencymanagement.backend.repository.CurrencyBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind ingestion of high-frequency rate updates from a market-data feed.
+ * <p>
+ * Accepted ticks are coalesced in memory to the latest rate per code and become visible to
+ * readers straight away through the snapshot cache overlay. A scheduled job writes the pending
+ * rates every {@code currency.ticks.flush-interval-ms} in one batched transaction, so that interval
+ * is the durability window: a crash loses at most the ticks accepted since the last flush.
+ * With the cache disabled, ticks are only visible once flushed.
+ * <p>
+ * A rate committed by any other write path supersedes the ticks for that code accepted before it
+ * (see {@link CurrencySnapshotCache#discardPendingRatesAfterCommit}); the flush skips them rather than
+ * writing an older rate over a newer one. A write that commits while a flush of the same code is
+ * already in flight is not covered: the later of the two commits wins.
+ */
+@Service
+public class RateTickIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RateTickIngestionService.class);
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyBatchRepository currencyBatchRepository;
+
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+
+    @Autowired
+    private CurrencyChangeBroadcaster changeBroadcaster;
+
+    @Autowired
+    private CurrencyClusterNotifier clusterNotifier;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private CurrencyCandleService candleService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${currency.ticks.flush-interval-ms:250}")
+    private long flushIntervalMillis;
+
+    @Value("${currency.ticks.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${currency.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    private final Map<String, BigDecimal> pending = new ConcurrentHashMap<>();
+    // Serializes flushes; a lock rather than a monitor so a flushing virtual thread is not pinned during the write
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Makes the overlay and pending one step per call: otherwise two calls for the same code could
+    // leave an older rate pending under a newer overlay, and the flush would write neither
+    private final ReentrantLock submitLock = new ReentrantLock();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private Timer flushTimer;
+
+    @PostConstruct
+    void registerFlushTimer() {
+        flushTimer = Timer.builder("currency.ticks.flush")
+            .description("Time to write one batch of pending ticks")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Accepts ticks for existing currencies. Within one call and across calls, only the latest rate
+     * per code is kept until the next flush.
+     */
+    public TickIngestResponse submit(List<RateTick> ticks) {
+        Map<String, BigDecimal> accepted = new LinkedHashMap<>();
+        List<BatchItemResult> rejections = new ArrayList<>();
+        int coalescedInCall = 0;
+
+        for (int i = 0; i < ticks.size(); i++) {
+            RateTick tick = ticks.get(i);
+            String code = tick != null && tick.getCode() != null ? tick.getCode().toUpperCase() : null;
+            String error = validateTick(tick, code);
+            if (error == null && !pending.containsKey(code) && !accepted.containsKey(code)
+                    && pending.size() + accepted.size() >= maxPending) {
+                error = "Hàng đợi cập nhật tỷ giá đã đầy";
+            }
+            if (error != null) {
+                rejections.add(new BatchItemResult(i, code, BatchItemResult.Status.FAILED, null, error));
+                continue;
+            }
+            // Stored at the column scale so readers see exactly what will be persisted
+            if (accepted.put(code, tick.getExchangeRate().setScale(4, RoundingMode.HALF_EVEN)) != null) {
+                coalescedInCall++;
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            submitLock.lock();
+            try {
+                // Overlay first: a flush may only release rates that readers could already see
+                snapshotCache.applyPendingRates(accepted);
+                for (Map.Entry<String, BigDecimal> entry : accepted.entrySet()) {
+                    if (pending.put(entry.getKey(), entry.getValue()) != null) {
+                        coalescedInCall++;
+                    }
+                }
+                // Still under the lock, so subscribers get the rates of one code in the order they were applied
+                accepted.forEach((code, rate) ->
+                    changeBroadcaster.publish(new CurrencyChangeEvent(CurrencyChangeEvent.Type.UPDATED, code, rate)));
+            } finally {
+                submitLock.unlock();
+            }
+        }
+
+        int acceptedCount = ticks.size() - rejections.size();
+        received.add(ticks.size());
+        coalesced.add(coalescedInCall);
+        rejected.add(rejections.size());
+        return new TickIngestResponse(acceptedCount, coalescedInCall, flushIntervalMillis, rejections);
+    }
+
+    /**
+     * Writes every pending rate in one transaction. Rates that fail to write are put back
+     * unless a newer tick for the same code has arrived in the meantime.
+     */
+    @Scheduled(fixedDelayString = "${currency.ticks.flush-interval-ms:250}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, BigDecimal> batch = new HashMap<>(pending.size() * 2);
+        for (String code : pending.keySet()) {
+            BigDecimal rate = pending.remove(code);
+            // Superseded by a write committed since the tick was accepted
+            if (rate != null && snapshotCache.isPendingRate(code, rate)) {
+                batch.put(code, rate);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            List<String> updated = template.execute(status -> {
+                // Rates equal to the stored ones are not written, so only the changed codes are announced
+                List<String> codes = currencyBatchRepository.updateRates(batch, batchChunkSize);
+                clusterNotifier.notifyChanges(codes.stream()
+                    .map(code -> new CurrencyChangeEvent(CurrencyChangeEvent.Type.UPDATED, code, batch.get(code)))
+                    .toList());
+                return codes;
+            });
+            snapshotCache.releasePendingRates(batch);
+            if (updated != null && !updated.isEmpty()) {
+                replicaLagGuard.markWrite();
+                // Picks up the bumped row versions so conditional updates are checked against them;
+                // row versions and updated_at changed, so the catalog bodies and their ETag must change too
+                snapshotCache.refreshAfterCommit();
+                LocalDateTime committedAt = LocalDateTime.now();
+                updated.forEach(code -> candleService.record(code, batch.get(code), committedAt));
+                flushedRows.add(updated.size());
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending::putIfAbsent);
+            flushFailures.increment();
+            log.warn("Flushing {} pending rate ticks failed, retrying on the next run", batch.size(), e);
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private String validateTick(RateTick tick, String code) {
+        if (tick == null) {
+            return "Phần tử không được để trống";
+        }
+        Set<ConstraintViolation<RateTick>> violations = validator.validate(tick);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        BigDecimal rate = tick.getExchangeRate().setScale(4, RoundingMode.HALF_EVEN);
+        if (rate.signum() <= 0) {
+            return "Tỷ giá hối đoái phải lớn hơn 0";
+        }
+        // exchange_rate is NUMERIC(10, 4)
+        if (rate.precision() - rate.scale() > 6) {
+            return "Tỷ giá hối đoái vượt quá giới hạn cho phép";
+        }
+        if (!currencyService.existsByCode(code)) {
+            return "Không tìm thấy tiền tệ với mã " + code;
+        }
+        return null;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getFlushedRowCount() {
+        return flushedRows.sum();
+    }
+
+    public long getFlushFailureCount() {
+        return flushFailures.sum();
+    }
+}
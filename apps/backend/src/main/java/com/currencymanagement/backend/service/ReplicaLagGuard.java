@@ -0,0 +1,104 @@
+package com.currencymanagement.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether read-only work may go to the read replica without missing committed writes.
+ * <p>
+ * Every committed change, local or announced by another instance, calls {@link #markWrite()}.
+ * From then on reads stay on the primary until a poll has sampled the primary's WAL position
+ * after the change and the replica has replayed up to it. Polling keeps the routing decision
+ * free of per-request queries; the price is that reads after a write use the primary for up to
+ * one poll interval plus the replication lag.
+ * <p>
+ * A replica that cannot be polled is treated as behind, so reads fall back to the primary.
+ * Without a configured replica the guard is inactive.
+ */
+@Component
+public class ReplicaLagGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    @Autowired(required = false)
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired(required = false)
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    // Written by the polling thread only
+    private volatile long coveredSequence;
+    private volatile long requiredLsn;
+    private volatile long replayedLsn;
+    private volatile long lagBytes;
+    private volatile boolean replicaHealthy;
+
+    public boolean isActive() {
+        return primaryDataSource != null && replicaDataSource != null;
+    }
+
+    /**
+     * Pins reads to the primary until the replica has caught up with everything committed so far.
+     */
+    public void markWrite() {
+        writeSequence.incrementAndGet();
+    }
+
+    public boolean isReplicaCaughtUp() {
+        return replicaHealthy
+            && coveredSequence == writeSequence.get()
+            && replayedLsn >= requiredLsn;
+    }
+
+    @Scheduled(fixedDelayString = "${currency.datasource.replica.lag-check-ms:100}")
+    public void poll() {
+        if (!isActive()) {
+            return;
+        }
+        long sequence = writeSequence.get();
+        try {
+            // Primary first: its position is then at least that of every write marked before the poll
+            Long primaryLsn = new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT (pg_current_wal_lsn() - '0/0'::pg_lsn)::bigint", Long.class);
+            ReplicaPosition replica = new JdbcTemplate(replicaDataSource).queryForObject(
+                "SELECT pg_is_in_recovery(), (pg_last_wal_replay_lsn() - '0/0'::pg_lsn)::bigint",
+                (rs, rowNum) -> new ReplicaPosition(rs.getBoolean(1), rs.getLong(2)));
+            update(sequence, primaryLsn, replica.inRecovery(), replica.replayLsn());
+        } catch (RuntimeException e) {
+            if (replicaHealthy) {
+                log.warn("Read replica position unavailable, routing reads to the primary: {}", e.getMessage());
+            }
+            replicaHealthy = false;
+        }
+    }
+
+    void update(long sequence, long primaryLsn, boolean inRecovery, long replayLsn) {
+        // A server that is not in recovery is the primary itself (or a promoted replica): never behind
+        long replayed = inRecovery ? replayLsn : Long.MAX_VALUE;
+        if (sequence != coveredSequence) {
+            requiredLsn = Math.max(requiredLsn, primaryLsn);
+            coveredSequence = sequence;
+        }
+        replayedLsn = replayed;
+        lagBytes = inRecovery ? Math.max(0, primaryLsn - replayLsn) : 0;
+        replicaHealthy = true;
+    }
+
+    public long getLagBytes() {
+        return lagBytes;
+    }
+
+    private record ReplicaPosition(boolean inRecovery, long replayLsn) {}
+}
@@ -0,0 +1,163 @@
+package com.currencymanagement.backend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Writes every row of a result set to a stream as NDJSON or CSV, one row at a time.
+ * <p>
+ * Column names are converted to the camelCase property names used by the JSON API, and values
+ * are formatted the same way ({@code exchangeRate} as a plain decimal, timestamps as ISO-8601).
+ * Nothing is retained per row, so memory use does not depend on the number of rows.
+ * The stream is flushed but not closed.
+ */
+public final class RowStreamWriter implements ResultSetExtractor<Long> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataFormat format;
+    private final OutputStream out;
+    private final JsonFactory jsonFactory;
+
+    public RowStreamWriter(DataFormat format, OutputStream out, JsonFactory jsonFactory) {
+        this.format = format;
+        this.out = out;
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public Long extractData(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] names = new String[columns];
+        int[] types = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            names[i] = toCamelCase(meta.getColumnLabel(i + 1));
+            types[i] = meta.getColumnType(i + 1);
+        }
+        try {
+            return format == DataFormat.CSV
+                ? writeCsv(rs, names, types)
+                : writeNdjson(rs, names, types);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeNdjson(ResultSet rs, String[] names, int[] types) throws SQLException, IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.enable(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+        generator.setRootValueSeparator(null);
+        long rows = 0;
+        while (rs.next()) {
+            generator.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                generator.writeFieldName(names[i]);
+                Object value = readValue(rs, i + 1, types[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rows++;
+        }
+        generator.flush();
+        return rows;
+    }
+
+    private long writeCsv(ResultSet rs, String[] names, int[] types) throws SQLException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(String.join(",", names));
+        writer.write('\n');
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = readValue(rs, i + 1, types[i]);
+                if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value != null) {
+                    writeCsvField(writer, value.toString());
+                }
+            }
+            writer.write('\n');
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static Object readValue(ResultSet rs, int column, int type) throws SQLException {
+        switch (type) {
+            case Types.NUMERIC, Types.DECIMAL -> {
+                return rs.getBigDecimal(column);
+            }
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> {
+                long value = rs.getLong(column);
+                return rs.wasNull() ? null : value;
+            }
+            case Types.TIMESTAMP -> {
+                return rs.getObject(column, LocalDateTime.class);
+            }
+            default -> {
+                return rs.getString(column);
+            }
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    static String toCamelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (c == '_') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.currencymanagement.backend.service;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one.
+ * <p>
+ * The first caller for a key runs the loader on its own thread; callers arriving while it runs wait
+ * for that result instead of starting their own, and get its exception if it fails. Nothing is kept
+ * once the load completes, so the next caller loads again: this removes duplicate work during a
+ * burst, it is not a cache.
+ * <p>
+ * Waiting callers give up after {@code timeoutMillis} with a {@link QueryTimeoutException}; the load
+ * itself carries on for the caller running it, bounded by the JDBC timeouts.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            collapsed.increment();
+            return await(key, existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> flight) {
+        try {
+            return flight.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new QueryTimeoutException("Gave up after " + timeoutMillis + " ms waiting for the lookup of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for the lookup of " + key);
+        } catch (ExecutionException e) {
+            // Rethrow the loader's own exception so that every caller sees the same failure
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    public long getCollapsedCount() {
+        return collapsed.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,31 @@
+package com.currencymanagement.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for running side effects only once the current transaction has committed.
+ */
+public final class TransactionHooks {
+    
+    private TransactionHooks() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Runs {@code action} after the surrounding transaction commits,
+     * or immediately when no transaction is active.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,3 +1,4 @@
+-- Dữ liệu mẫu cho môi trường phát triển; profile prod không chạy file này
 INSERT INTO currencies (code, name, symbol, exchange_rate, created_at, updated_at) VALUES
 ('USD', 'United States Dollar', '$', 1.0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('EUR', 'Euro', '€', 0.92, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
@@ -9,4 +10,9 @@ INSERT INTO currencies (code, name, symbol, exchange_rate, created_at, updated_a
 ('CNY', 'Chinese Yuan', '¥', 7.12, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('KRW', 'South Korean Won', '₩', 1320.0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('INR', 'Indian Rupee', '₹', 83.1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('VND', 'Vietnamese Dong', '₫', 24500.0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP); 
\ No newline at end of file
+('VND', 'Vietnamese Dong', '₫', 24500.0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (code) DO NOTHING;
+
+INSERT INTO currency_rate_history (code, exchange_rate, effective_at)
+SELECT code, exchange_rate, created_at FROM currencies c
+WHERE NOT EXISTS (SELECT 1 FROM currency_rate_history h WHERE h.code = c.code);
\ No newline at end of file
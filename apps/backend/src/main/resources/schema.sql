@@ -5,9 +5,21 @@ CREATE TABLE IF NOT EXISTS currencies (
     symbol VARCHAR(10) NOT NULL,
     exchange_rate DECIMAL(10, 4) NOT NULL,
     created_at TIMESTAMP NOT NULL DEFAULT NOW(),
-    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+-- Script chạy mỗi lần khởi động, cả ở profile prod: mọi câu lệnh đều bỏ qua đối tượng đã có và
+-- không khóa chặn đọc/ghi bảng đang phục vụ (index tạo CONCURRENTLY, trigger chỉ tạo khi chưa có).
+-- Muốn đổi định nghĩa trigger hay index đã tồn tại thì cần một bước migration riêng.
+
+-- Index cho các cột được phép sắp xếp, kèm id để phân trang keyset
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_currencies_name_id ON currencies (name, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_currencies_exchange_rate_id ON currencies (exchange_rate, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_currencies_created_at_id ON currencies (created_at, id);
+-- Index cho đồng bộ delta: các dòng thay đổi sau một cursor
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_currencies_updated_at_id ON currencies (updated_at, id);
+
 -- Tạo function để update updated_at timestamp
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS '
@@ -17,9 +29,80 @@ BEGIN
 END;
 ' LANGUAGE plpgsql;
 
--- Tạo trigger để tự động cập nhật updated_at khi update record
-DROP TRIGGER IF EXISTS update_currencies_updated_at ON currencies;
-CREATE TRIGGER update_currencies_updated_at
-    BEFORE UPDATE ON currencies
-    FOR EACH ROW
-    EXECUTE FUNCTION update_updated_at_column(); 
\ No newline at end of file
+-- Tạo trigger để tự động cập nhật updated_at khi insert hoặc update record,
+-- luôn theo đồng hồ của database để cursor đồng bộ delta không phụ thuộc đồng hồ ứng dụng
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                   WHERE tgrelid = ''currencies''::regclass AND tgname = ''update_currencies_updated_at'') THEN
+        CREATE TRIGGER update_currencies_updated_at
+            BEFORE INSERT OR UPDATE ON currencies
+            FOR EACH ROW
+            EXECUTE FUNCTION update_updated_at_column();
+    END IF;
+END
+';
+
+-- Mã tiền tệ đã bị xóa (hoặc đổi mã), để đồng bộ delta báo được các bản ghi bị xóa
+CREATE TABLE IF NOT EXISTS currency_tombstones (
+    code VARCHAR(3) PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_currency_tombstones_deleted_at ON currency_tombstones (deleted_at);
+
+CREATE OR REPLACE FUNCTION record_currency_tombstone()
+RETURNS TRIGGER AS '
+BEGIN
+    INSERT INTO currency_tombstones (code, deleted_at) VALUES (OLD.code, NOW())
+    ON CONFLICT (code) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                   WHERE tgrelid = ''currencies''::regclass AND tgname = ''currencies_tombstone_on_delete'') THEN
+        CREATE TRIGGER currencies_tombstone_on_delete
+            AFTER DELETE ON currencies
+            FOR EACH ROW
+            EXECUTE FUNCTION record_currency_tombstone();
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger
+                   WHERE tgrelid = ''currencies''::regclass AND tgname = ''currencies_tombstone_on_code_change'') THEN
+        CREATE TRIGGER currencies_tombstone_on_code_change
+            AFTER UPDATE OF code ON currencies
+            FOR EACH ROW
+            WHEN (OLD.code IS DISTINCT FROM NEW.code)
+            EXECUTE FUNCTION record_currency_tombstone();
+    END IF;
+END
+';
+
+-- Lịch sử tỷ giá, chỉ ghi thêm, không bao giờ cập nhật
+CREATE TABLE IF NOT EXISTS currency_rate_history (
+    id BIGSERIAL PRIMARY KEY,
+    code VARCHAR(3) NOT NULL,
+    exchange_rate DECIMAL(10, 4) NOT NULL,
+    effective_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Index phục vụ truy vấn theo khoảng thời gian và truy vấn as-of (một lần seek index)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rate_history_code_effective_at
+    ON currency_rate_history (code, effective_at);
+
+-- Nến OHLC đã đóng, ghi định kỳ từ bộ nhớ. Các instance gộp nến của cùng một khoảng khi ghi:
+-- open/close lấy theo thời điểm tick đầu/cuối, high/low lấy giá trị lớn/nhỏ nhất
+CREATE TABLE IF NOT EXISTS currency_candles (
+    code VARCHAR(3) NOT NULL,
+    resolution VARCHAR(3) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    open_rate DECIMAL(10, 4) NOT NULL,
+    high_rate DECIMAL(10, 4) NOT NULL,
+    low_rate DECIMAL(10, 4) NOT NULL,
+    close_rate DECIMAL(10, 4) NOT NULL,
+    open_at TIMESTAMP NOT NULL,
+    close_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (code, resolution, bucket_start)
+);
@@ -0,0 +1,158 @@
+package com.currencymanagement.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures time-to-first-successful-request: from launching the JVM to the first {@code 200} from
+ * {@code GET /api/currencies}, and to {@code /actuator/health/readiness} reporting UP. Each variant
+ * is started several times in a separate JVM, runs interleaved, and the median and best are printed:
+ * <ul>
+ * <li>default: the plain jar with the default profile (schema rebuilt and re-seeded, SQL logged)</li>
+ * <li>prod: the plain jar with the prod profile (schema validated, rate data warmed before ready)</li>
+ * <li>prod + AOT + CDS: the extracted jar with the AOT-processed context and the CDS archive</li>
+ * </ul>
+ * Needs the jars from {@code mvn -Pfast-startup package -DskipTests} and the database from
+ * application.properties; run with {@code mvn test -Dbenchmark=true -Dtest=StartupTimeTest}, with the
+ * same JVM that built the archive. Variants whose files are missing are skipped.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupTimeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTest.class);
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Integer.getInteger("startup.timeout-seconds", 120));
+    private static final Path TARGET = Path.of("target");
+    private static final String JAR = "backend-0.0.1-SNAPSHOT.jar";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void measureTimeToFirstRequest() throws Exception {
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("default", TARGET, List.of("-jar", TARGET.resolve(JAR).toAbsolutePath().toString())));
+        variants.add(new Variant("prod", TARGET, List.of("-jar", TARGET.resolve(JAR).toAbsolutePath().toString(),
+            "--spring.profiles.active=prod")));
+        variants.add(new Variant("prod + AOT + CDS", TARGET.resolve("app"), List.of("-XX:SharedArchiveFile=application.jsa",
+            "-Xlog:cds=error", "-Dspring.aot.enabled=true", "-jar", JAR, "--spring.profiles.active=prod")));
+        variants.removeIf(variant -> {
+            boolean missing = !Files.exists(variant.directory.resolve(variant.jar()))
+                || variant.arguments.get(0).startsWith("-XX:SharedArchiveFile") && !Files.exists(variant.directory.resolve("application.jsa"));
+            if (missing) {
+                log.info("{}: skipped, run mvn -Pfast-startup package -DskipTests first", variant.name);
+            }
+            return missing;
+        });
+        assertFalse(variants.isEmpty());
+
+        // Interleaved, so that drift in the machine or the database affects every variant alike
+        for (int run = 0; run < RUNS; run++) {
+            for (Variant variant : variants) {
+                variant.measure(run);
+            }
+        }
+        log.info("{} runs per variant, milliseconds from JVM launch", RUNS);
+        for (Variant variant : variants) {
+            log.info(String.format("%-17s first 200 median %6d best %6d | ready median %6d best %6d", variant.name + ":",
+                median(variant.firstRequest), Arrays.stream(variant.firstRequest).min().orElse(-1),
+                median(variant.ready), Arrays.stream(variant.ready).min().orElse(-1)));
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private final class Variant {
+
+        private final String name;
+        private final Path directory;
+        private final List<String> arguments;
+        private final long[] firstRequest = new long[RUNS];
+        private final long[] ready = new long[RUNS];
+
+        private Variant(String name, Path directory, List<String> arguments) {
+            this.name = name;
+            this.directory = directory;
+            this.arguments = arguments;
+        }
+
+        String jar() {
+            return arguments.get(arguments.indexOf("-jar") + 1);
+        }
+
+        void measure(int run) throws Exception {
+            int port = freePort();
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(arguments);
+            command.add("--server.port=" + port);
+            File log = TARGET.resolve("startup-" + name.replaceAll("\\W+", "-") + "-" + run + ".log").toFile();
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+            try {
+                firstRequest[run] = waitFor(process, start, URI.create("http://localhost:" + port + "/api/currencies"));
+                ready[run] = waitFor(process, start, URI.create("http://localhost:" + port + "/actuator/health/readiness"));
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+
+        /**
+         * Polls {@code uri} until it answers 200 and returns the milliseconds since {@code start}.
+         */
+        private long waitFor(Process process, long start, URI uri) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).build();
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertTrue(process.isAlive(), name + " exited during startup, see target/startup-*.log");
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError(name + " did not answer " + uri + " within " + TIMEOUT);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.currencymanagement.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same closed-loop load against the application on platform threads and on virtual threads
+ * and prints throughput and p50/p99 latency of each. Most requests are served from memory; one in
+ * five reads 500 rows of rate history, so request threads spend time waiting for pooled connections.
+ * <p>
+ * The virtual-thread run needs Java 21 or later and is skipped on older runtimes. Needs the database
+ * from application.properties; run with
+ * {@code JAVA_HOME=<jdk 21> mvn test -Dbenchmark=true -Dtest=ThreadingModeLoadTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadingModeLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeLoadTest.class);
+
+    private static final int USERS = Integer.getInteger("load.users", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Integer.getInteger("load.seconds", 15));
+    private static final double DATABASE_SHARE = 0.2;
+    private static final int HISTORY_ROWS = 200_000;
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        List<String> results = new ArrayList<>();
+        results.add(run(false));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run(true));
+        } else {
+            results.add("virtual:  skipped, needs Java 21+ (running " + Runtime.version() + ")");
+        }
+        log.info(String.format("%d users, %.0f%% database reads, %d s per mode", USERS, DATABASE_SHARE * 100, MEASUREMENT.toSeconds()));
+        results.forEach(log::info);
+    }
+
+    private String run(boolean virtualThreads) throws Exception {
+        // Arguments rather than default properties, which application.properties would override
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CurrencyManagementApplication.class)
+                .run("--server.port=0",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=off",
+                    "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("INSERT INTO currency_rate_history (code, exchange_rate, effective_at) "
+                + "SELECT 'EUR', 0.9 + (i % 1000) / 10000.0, TIMESTAMP '2020-01-01' + i * INTERVAL '1 minute' "
+                + "FROM generate_series(1, ?) AS i", HISTORY_ROWS);
+            jdbcTemplate.execute("ANALYZE currency_rate_history");
+
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            Load load = new Load(
+                HttpRequest.newBuilder(URI.create(base + "/api/currencies/EUR")).build(),
+                HttpRequest.newBuilder(URI.create(base + "/api/currencies/EUR/history?from=2020-01-01T00:00:00&limit=500")).build());
+            load.run(WARMUP);
+            Recorder recorder = load.run(MEASUREMENT);
+
+            assertTrue(recorder.memory.count() > 0 && recorder.database.count() > 0);
+            return String.format("%-9s %7.0f req/s | memory p50 %6.1f ms p99 %7.1f ms | database p50 %6.1f ms p99 %7.1f ms"
+                    + " | 503 %d, errors %d",
+                virtualThreads ? "virtual:" : "platform:",
+                (recorder.memory.count() + recorder.database.count()) / (double) MEASUREMENT.toSeconds(),
+                recorder.memory.percentile(50), recorder.memory.percentile(99),
+                recorder.database.percentile(50), recorder.database.percentile(99),
+                recorder.unavailable.sum(), recorder.errors.sum());
+        }
+    }
+
+    private static final class Load {
+
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        private final HttpRequest memoryRequest;
+        private final HttpRequest databaseRequest;
+
+        private Load(HttpRequest memoryRequest, HttpRequest databaseRequest) {
+            this.memoryRequest = memoryRequest;
+            this.databaseRequest = databaseRequest;
+        }
+
+        Recorder run(Duration duration) throws InterruptedException {
+            Recorder recorder = new Recorder();
+            long deadline = System.nanoTime() + duration.toNanos();
+            CountDownLatch done = new CountDownLatch(USERS);
+            for (int i = 0; i < USERS; i++) {
+                Thread user = new Thread(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            boolean database = ThreadLocalRandom.current().nextDouble() < DATABASE_SHARE;
+                            long start = System.nanoTime();
+                            int status;
+                            try {
+                                status = client.send(database ? databaseRequest : memoryRequest,
+                                    HttpResponse.BodyHandlers.discarding()).statusCode();
+                            } catch (Exception e) {
+                                status = -1;
+                            }
+                            recorder.record(database, status, System.nanoTime() - start);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }, "load-user-" + i);
+                user.setDaemon(true);
+                user.start();
+            }
+            done.await();
+            return recorder;
+        }
+    }
+
+    private static final class Recorder {
+
+        private final Latencies memory = new Latencies();
+        private final Latencies database = new Latencies();
+        private final LongAdder unavailable = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(boolean databaseRequest, int status, long nanos) {
+            if (status == 200) {
+                (databaseRequest ? database : memory).add(nanos);
+            } else if (status == 503) {
+                unavailable.increment();
+            } else {
+                errors.increment();
+            }
+        }
+    }
+
+    private static final class Latencies {
+
+        private long[] nanos = new long[1 << 16];
+        private int count;
+
+        synchronized void add(long value) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized double percentile(double percentile) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.currencymanagement.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadDataSourceTest {
+
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private final AbstractDataSource pool = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        closed.incrementAndGet();
+                    }
+                    return method.getName().equals("isClosed") ? Boolean.FALSE : null;
+                });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    };
+
+    @Test
+    void closingAConnectionReturnsItsPermitOnce() throws SQLException {
+        BulkheadDataSource bulkhead = new BulkheadDataSource("test", pool, 1, 0, 10);
+
+        Connection connection = bulkhead.getConnection();
+        assertEquals(1, bulkhead.getActiveCount());
+        connection.close();
+        connection.close();
+
+        assertEquals(0, bulkhead.getActiveCount());
+        assertEquals(2, closed.get());
+        bulkhead.getConnection().close();
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    void rejectsCallersBeyondTheQueueAtOnce() throws SQLException {
+        BulkheadDataSource bulkhead = new BulkheadDataSource("test", pool, 1, 0, 60_000);
+        Connection held = bulkhead.getConnection();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        held.close();
+        bulkhead.getConnection().close();
+        assertEquals(1, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    void givesUpAfterTheTimeout() throws SQLException {
+        BulkheadDataSource bulkhead = new BulkheadDataSource("test", pool, 1, 10, 20);
+        Connection held = bulkhead.getConnection();
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        assertTrue(System.nanoTime() - start >= 20_000_000);
+        assertEquals(1, bulkhead.getTimedOutCount());
+        assertEquals(0, bulkhead.getWaitingCount());
+        held.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.currencymanagement.backend.config;
+
+import com.currencymanagement.backend.service.ReplicaLagGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private boolean caughtUp;
+
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(new ReplicaLagGuard() {
+        @Override
+        public boolean isReplicaCaughtUp() {
+            return caughtUp;
+        }
+    });
+
+    @AfterEach
+    void clearTransactionState() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void writesAlwaysGoToThePrimary() {
+        caughtUp = true;
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyWorkGoesToTheReplicaOnceItHasCaughtUp() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        caughtUp = false;
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        caughtUp = true;
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+
+        assertEquals(1, routing.getLagFallbackCount());
+        assertEquals(1, routing.getReplicaRouteCount());
+        assertEquals(1, routing.getPrimaryRouteCount());
+    }
+}
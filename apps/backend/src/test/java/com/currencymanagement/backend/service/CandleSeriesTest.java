@@ -0,0 +1,87 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.repository.CurrencyCandleRepository.Candle;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandleSeriesTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Test
+    void bucketsAreAlignedToTheInterval() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 37, 42, 500);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 37), CandleInterval.ONE_MINUTE.bucketStart(time));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 35), CandleInterval.FIVE_MINUTES.bucketStart(time));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), CandleInterval.ONE_HOUR.bucketStart(time));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), CandleInterval.ONE_DAY.bucketStart(time));
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 55),
+            CandleInterval.FIVE_MINUTES.bucketStart(LocalDateTime.of(1969, 12, 31, 23, 59)));
+    }
+
+    @Test
+    void ticksUpdateTheirBucketInPlace() {
+        CandleSeries series = new CandleSeries("EUR", CandleInterval.ONE_MINUTE);
+        series.record(rate("0.9200"), T.plusSeconds(10));
+        series.record(rate("0.9300"), T.plusSeconds(20));
+        series.record(rate("0.9100"), T.plusSeconds(30));
+        // Arrives late but happened first
+        series.record(rate("0.9250"), T.plusSeconds(5));
+        series.record(rate("0.9400"), T.plusSeconds(70));
+
+        List<Candle> candles = series.range(T, T.plusMinutes(1));
+        assertEquals(2, candles.size());
+        assertCandle(candles.get(0), T, "0.9250", "0.9300", "0.9100", "0.9100");
+        assertCandle(candles.get(1), T.plusMinutes(1), "0.9400", "0.9400", "0.9400", "0.9400");
+    }
+
+    @Test
+    void onlyChangedBucketsArePersistedAndOnlyPersistedOnesEvicted() {
+        CandleSeries series = new CandleSeries("EUR", CandleInterval.ONE_MINUTE);
+        series.record(rate("0.9200"), T);
+        series.record(rate("0.9300"), T.plusMinutes(1));
+
+        // The bucket at T + 1m is still open
+        assertEquals(List.of(T), series.takeUnpersisted(T.plusMinutes(1)).stream().map(Candle::bucketStart).toList());
+        assertTrue(series.takeUnpersisted(T.plusMinutes(1)).isEmpty());
+
+        // A failed write puts the candle back
+        series.restoreUnpersisted(series.range(T, T));
+        series.evictBefore(T.plusMinutes(1));
+        assertEquals(2, series.size());
+        assertEquals(1, series.takeUnpersisted(T.plusMinutes(1)).size());
+
+        series.evictBefore(T.plusMinutes(1));
+        assertEquals(1, series.size());
+    }
+
+    @Test
+    void mergingKeepsTheEarliestOpenAndTheLatestClose() {
+        Candle mine = new Candle("EUR", "1m", T, rate("0.92"), rate("0.95"), rate("0.91"), rate("0.93"),
+            T.plusSeconds(10), T.plusSeconds(40));
+        Candle theirs = new Candle("EUR", "1m", T, rate("0.90"), rate("0.94"), rate("0.89"), rate("0.94"),
+            T.plusSeconds(5), T.plusSeconds(50));
+
+        assertCandle(mine.merge(theirs), T, "0.90", "0.95", "0.89", "0.94");
+        assertCandle(theirs.merge(mine), T, "0.90", "0.95", "0.89", "0.94");
+        assertEquals(mine, mine.merge(mine));
+    }
+
+    private static BigDecimal rate(String value) {
+        return new BigDecimal(value);
+    }
+
+    private static void assertCandle(Candle candle, LocalDateTime start, String open, String high, String low, String close) {
+        assertEquals(start, candle.bucketStart());
+        assertEquals(rate(open), candle.open());
+        assertEquals(rate(high), candle.high());
+        assertEquals(rate(low), candle.low());
+        assertEquals(rate(close), candle.close());
+    }
+}
@@ -0,0 +1,26 @@
+package com.currencymanagement.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogResponseCacheTest {
+
+    @Test
+    void acceptsListedCodings() {
+        assertTrue(CatalogResponseCache.accepts("gzip, deflate, br", "br"));
+        assertTrue(CatalogResponseCache.accepts("GZIP;q=0.5", "gzip"));
+        assertFalse(CatalogResponseCache.accepts("gzip", "br"));
+        assertFalse(CatalogResponseCache.accepts(null, "gzip"));
+    }
+
+    @Test
+    void honoursZeroQualityAndWildcard() {
+        assertFalse(CatalogResponseCache.accepts("br;q=0, gzip", "br"));
+        assertTrue(CatalogResponseCache.accepts("*", "br"));
+        assertFalse(CatalogResponseCache.accepts("*;q=0", "gzip"));
+        assertFalse(CatalogResponseCache.accepts("*, br;q=0", "br"));
+        assertFalse(CatalogResponseCache.accepts("gzip;q=abc", "gzip"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CrossRateMatrixTest {
+
+    @Test
+    void incrementalUpdateMatchesFullRebuild() {
+        CrossRateMatrix matrix = CrossRateMatrix.build(table(
+            currency("USD", "1.0000"), currency("EUR", "0.9200"), currency("JPY", "110.0000")));
+
+        RateTable changed = table(
+            currency("JPY", "111.2500"), currency("USD", "1.0000"),
+            currency("EUR", "0.9200"), currency("VND", "24500.0000"));
+        CrossRateMatrix updated = matrix.update(changed);
+
+        CrossRateMatrix rebuilt = CrossRateMatrix.build(changed);
+        assertEquals(4, updated.size());
+        assertEquals(0, updated.indexOf("USD"));
+        assertEquals(3, updated.indexOf("VND"));
+        for (String from : List.of("USD", "EUR", "JPY", "VND")) {
+            for (String to : List.of("USD", "EUR", "JPY", "VND")) {
+                assertEquals(
+                    rebuilt.crossRate(rebuilt.indexOf(from), rebuilt.indexOf(to)),
+                    updated.crossRate(updated.indexOf(from), updated.indexOf(to)),
+                    from + "->" + to);
+            }
+        }
+    }
+
+    @Test
+    void unchangedRatesReuseMatrix() {
+        CrossRateMatrix matrix = CrossRateMatrix.build(table(currency("USD", "1.0000"), currency("EUR", "0.9200")));
+        assertSame(matrix, matrix.update(table(currency("EUR", "0.9200"), currency("USD", "1.0000"))));
+    }
+
+    @Test
+    void removalCompactsOrdinals() {
+        CrossRateMatrix matrix = CrossRateMatrix.build(table(
+            currency("USD", "1.0000"), currency("EUR", "0.9200"), currency("JPY", "110.0000")));
+        CrossRateMatrix updated = matrix.update(table(currency("USD", "1.0000"), currency("JPY", "110.0000")));
+        assertArrayEquals(new String[] {"USD", "JPY"}, updated.getCodes());
+        assertEquals(11_000_000_000L, updated.crossRate(0, 1));
+    }
+
+    private static RateTable table(Currency... currencies) {
+        return new RateTable(List.of(currencies));
+    }
+
+    private static Currency currency(String code, String rate) {
+        return new Currency(code, code, code, new BigDecimal(rate));
+    }
+}
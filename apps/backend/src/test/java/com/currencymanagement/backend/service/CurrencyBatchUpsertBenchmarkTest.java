@@ -0,0 +1,83 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.BatchUpsertResponse;
+import com.currencymanagement.backend.dto.CreateCurrencyRequest;
+import com.currencymanagement.backend.entity.Currency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the batch upsert against the per-row PUT path for a typical feed publish.
+ * Needs the database from application.properties; run with {@code mvn test -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CurrencyBatchUpsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyBatchUpsertBenchmarkTest.class);
+
+    private static final int ITEMS = 150;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Test
+    void batchUpsertVersusPerRowUpdates() {
+        List<CreateCurrencyRequest> feed = feed(BigDecimal.ONE);
+        BatchUpsertResponse seeded = currencyService.upsertCurrencies(feed);
+        assertEquals(ITEMS, seeded.getCreated());
+
+        long perRowNanos = 0;
+        long batchNanos = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            List<CreateCurrencyRequest> perRowFeed = feed(BigDecimal.valueOf(round * 2L));
+            long start = System.nanoTime();
+            for (CreateCurrencyRequest request : perRowFeed) {
+                // Same steps as PUT /api/currencies/{id}: look the row up, then save a full entity
+                Optional<Currency> existing = currencyService.getCurrencyByCode(request.getCode());
+                Currency currency = new Currency(request.getCode(), request.getName(), request.getSymbol(),
+                    request.getExchangeRate());
+                currency.setId(existing.orElseThrow().getId());
+                currency.setCreatedAt(existing.get().getCreatedAt());
+                currency.setVersion(existing.get().getVersion());
+                currencyService.saveCurrency(currency);
+            }
+            perRowNanos += System.nanoTime() - start;
+
+            List<CreateCurrencyRequest> batchFeed = feed(BigDecimal.valueOf(round * 2L + 1));
+            start = System.nanoTime();
+            BatchUpsertResponse response = currencyService.upsertCurrencies(batchFeed);
+            batchNanos += System.nanoTime() - start;
+            assertEquals(ITEMS, response.getUpdated());
+        }
+
+        log.info(String.format("%d items x %d rounds: per-row %.2f ms/publish, batch %.2f ms/publish (%.1fx)",
+            ITEMS, ROUNDS, perRowNanos / 1e6 / ROUNDS, batchNanos / 1e6 / ROUNDS, (double) perRowNanos / batchNanos));
+
+        for (CreateCurrencyRequest request : feed(BigDecimal.ONE)) {
+            currencyService.getCurrencyByCode(request.getCode())
+                .ifPresent(currency -> currencyService.deleteCurrency(currency.getId()));
+        }
+    }
+
+    private static List<CreateCurrencyRequest> feed(BigDecimal rate) {
+        List<CreateCurrencyRequest> feed = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            String code = "Q" + (char) ('A' + i / 26) + (char) ('A' + i % 26);
+            feed.add(new CreateCurrencyRequest(code, "Benchmark " + code, code, rate));
+        }
+        return feed;
+    }
+}
@@ -0,0 +1,92 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurrencyBinaryEncoderTest {
+
+    private final CurrencyBinaryEncoder encoder = new CurrencyBinaryEncoder();
+
+    @Test
+    void ratesRoundTripAsScaledLongs() {
+        CurrencySnapshot snapshot = new CurrencySnapshot(42, List.of(
+            currency(1, "USD", "United States Dollar", "$", "1.0000"),
+            currency(2, "VND", "Đồng Việt Nam", "₫", "24500.5"),
+            currency(3, "XAU", "Gold 🪙", "oz", "0.0005")));
+
+        ByteBuffer body = encoder.encode(snapshot, false);
+        assertEquals(CurrencyBinaryEncoder.HEADER_BYTES + 3 * CurrencyBinaryEncoder.RATE_BYTES, body.remaining());
+
+        CurrencyBinaryDecoder.Catalog catalog = CurrencyBinaryDecoder.decode(body);
+        assertEquals(42, catalog.version());
+        assertEquals(List.of("USD", "VND", "XAU"), catalog.rates().stream().map(CurrencyBinaryDecoder.Rate::code).toList());
+        assertEquals(245_005_000L, catalog.rates().get(1).scaledRate());
+        assertEquals(new BigDecimal("0.0005"), catalog.rates().get(2).exchangeRate());
+        assertNull(catalog.rates().get(0).name());
+    }
+
+    @Test
+    void metadataIsWrittenInUtf8() {
+        CurrencySnapshot snapshot = new CurrencySnapshot(1, List.of(
+            currency(2, "VND", "Đồng Việt Nam", "₫", "24500.0000"),
+            currency(3, "XAU", "Gold 🪙", "oz", "0.0005")));
+
+        CurrencyBinaryDecoder.Rate vnd = CurrencyBinaryDecoder.decode(encoder.encode(snapshot, true)).rates().get(0);
+        CurrencyBinaryDecoder.Rate xau = CurrencyBinaryDecoder.decode(encoder.encode(snapshot, true)).rates().get(1);
+        assertEquals(2, vnd.id());
+        assertEquals("Đồng Việt Nam", vnd.name());
+        assertEquals("₫", vnd.symbol());
+        assertEquals("Gold 🪙", xau.name());
+    }
+
+    @Test
+    void codesOutsideAsciiCannotBeEncoded() {
+        assertEquals(('E' << 16) | ('U' << 8) | 'R', CurrencyBinaryEncoder.packCode("EUR"));
+        assertEquals("EUR", CurrencyBinaryDecoder.unpackCode(CurrencyBinaryEncoder.packCode("EUR")));
+        assertEquals(-1, CurrencyBinaryEncoder.packCode("ĐỒN"));
+        assertEquals(-1, CurrencyBinaryEncoder.packCode("EU"));
+
+        CurrencySnapshot snapshot = new CurrencySnapshot(1, List.of(currency(1, "ĐỒN", "Đồng", "₫", "1")));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(snapshot, false));
+        assertThrows(IllegalArgumentException.class, () -> CurrencyBinaryDecoder.decode(ByteBuffer.wrap(new byte[] {1, 2, 3, 4})));
+    }
+
+    @Test
+    void encodingAllocatesNothingOnceWarm() {
+        List<Currency> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String code = "X" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26);
+            rows.add(currency(i + 1, code, "Tiền tệ " + code, "₫", "1.2345"));
+        }
+        CurrencySnapshot snapshot = new CurrencySnapshot(1, rows);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 1000; i++) {
+            encoder.encode(snapshot, true);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100; i++) {
+            encoder.encode(snapshot, true);
+        }
+        long perCall = (threads.getCurrentThreadAllocatedBytes() - before) / 100;
+        // Before the JIT removes it an iterator may still be allocated, never a copy of the body
+        assertTrue(perCall < 128, "allocated " + perCall + " bytes per call");
+    }
+
+    private static Currency currency(long id, String code, String name, String symbol, String rate) {
+        Currency currency = new Currency(code, name, symbol, new BigDecimal(rate));
+        currency.setId(id);
+        return currency;
+    }
+}
@@ -0,0 +1,159 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CurrencyChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivery to subscribers whose connection is stood in for by an emitter that records every event
+ * and holds each send until the test releases it, like a client that has stopped reading.
+ */
+@SpringBootTest(properties = {
+    "currency.stream.buffer-size=4",
+    "currency.stream.dispatch-threads=1",
+    "currency.stream.send-timeout-ms=1000"
+})
+class CurrencyChangeBroadcasterTest {
+
+    @Autowired
+    private CurrencyChangeBroadcaster broadcaster;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @AfterEach
+    void releaseEmitters() {
+        emitters.forEach(RecordingEmitter::release);
+    }
+
+    @Test
+    void readyComesFirstAndChangesCoalescePerCode() throws InterruptedException {
+        // Occupies the only dispatcher thread, so the next subscriber's READY and changes queue up together
+        RecordingEmitter blocker = subscribe();
+        await(() -> blocker.events.size() == 1);
+
+        String version = Long.toString(catalogVersion.get());
+        RecordingEmitter emitter = subscribe();
+        emitter.release();
+        publish("EUR", "1.1000");
+        publish("GBP", "2.2000");
+        publish("EUR", "3.3000");
+        blocker.release();
+
+        await(() -> emitter.events.size() == 3);
+        assertEquals(List.of("READY", "UPDATED", "UPDATED"), emitter.names());
+        assertTrue(emitter.events.get(0).contains("data:" + version + "\n"), emitter.events.get(0));
+        // Only the latest event per code, in the order the codes first changed
+        assertTrue(emitter.events.get(1).contains("\"code\":\"EUR\"") && emitter.events.get(1).contains("3.3"),
+            emitter.events.get(1));
+        assertTrue(emitter.events.get(2).contains("\"code\":\"GBP\""), emitter.events.get(2));
+    }
+
+    @Test
+    void overflowSendsExactlyOneResync() throws InterruptedException {
+        RecordingEmitter emitter = subscribe();
+        await(() -> emitter.events.size() == 1);
+        for (int i = 0; i < 10; i++) {
+            publish("Q" + (char) ('A' + i) + "A", "1.0000");
+        }
+        emitter.release();
+        await(() -> emitter.events.size() == 2);
+
+        // Delivered after the RESYNC, so nothing else can have been queued in between
+        publish("EUR", "1.2000");
+        await(() -> emitter.events.size() == 3);
+        assertEquals(List.of("READY", "RESYNC", "UPDATED"), emitter.names());
+    }
+
+    @Test
+    void blockedSendIsDroppedAndItsThreadReplacedUntilItReturns() throws InterruptedException {
+        long stalled = broadcaster.getStalledCount();
+        int subscribers = broadcaster.getSubscriberCount();
+        RecordingEmitter stuck = subscribe();
+        await(() -> stuck.events.size() == 1);
+        assertEquals(1, broadcaster.getDispatchPoolSize());
+
+        await(() -> broadcaster.getStalledCount() == stalled + 1);
+        assertEquals(subscribers, broadcaster.getSubscriberCount());
+        assertEquals(2, broadcaster.getDispatchPoolSize());
+
+        // The replacement thread serves everyone else while the stuck send still holds the original one
+        RecordingEmitter other = subscribe();
+        other.release();
+        publish("EUR", "1.3000");
+        await(() -> other.events.size() == 2);
+        assertEquals(List.of("READY", "UPDATED"), other.names());
+
+        stuck.release();
+        await(() -> broadcaster.getDispatchPoolSize() == 1);
+        publish("GBP", "1.4000");
+        await(() -> other.events.size() == 3);
+        // Dropped: the stuck subscriber gets nothing more once its send has returned
+        assertEquals(1, stuck.events.size());
+    }
+
+    private RecordingEmitter subscribe() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        broadcaster.subscribe(emitter);
+        return emitter;
+    }
+
+    private void publish(String code, String rate) {
+        broadcaster.publish(new CurrencyChangeEvent(CurrencyChangeEvent.Type.UPDATED, code, new BigDecimal(rate)));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        void release() {
+            released.countDown();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+            try {
+                released.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        List<String> names() {
+            return events.stream()
+                .map(event -> event.substring(event.indexOf("event:") + 6, event.indexOf('\n', event.indexOf("event:"))))
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.currencymanagement.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plays the part of another instance sharing the database: changes are written straight to the
+ * table, bypassing this instance, which has to pick them up through LISTEN/NOTIFY.
+ */
+@SpringBootTest
+class CurrencyClusterNotifierTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyClusterNotifierTest.class);
+
+    private static final String CODE = "GBP";
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyClusterNotifier clusterNotifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BigDecimal originalRate;
+
+    @BeforeEach
+    void loadSnapshot() throws InterruptedException {
+        originalRate = currencyService.getCurrencyByCode(CODE).orElseThrow().getExchangeRate();
+        await(clusterNotifier::isConnected, 10_000);
+    }
+
+    @AfterEach
+    void restoreRate() {
+        jdbcTemplate.update("UPDATE currencies SET exchange_rate = ? WHERE code = ?", originalRate, CODE);
+        notifyAsOtherNode("{\"node\":\"test-node\",\"sentAt\":0,\"resync\":true,\"events\":[]}");
+    }
+
+    @Test
+    void changeFromAnotherInstanceIsAppliedWithinMilliseconds() throws InterruptedException {
+        BigDecimal newRate = new BigDecimal("1.2345");
+        jdbcTemplate.update("UPDATE currencies SET exchange_rate = ? WHERE code = ?", newRate, CODE);
+        assertEquals(0, originalRate.compareTo(currencyService.getCurrencyByCode(CODE).orElseThrow().getExchangeRate()),
+            "the snapshot must not see a change nobody announced");
+
+        long[] latencies = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            BigDecimal rate = newRate.add(BigDecimal.valueOf(round));
+            jdbcTemplate.update("UPDATE currencies SET exchange_rate = ? WHERE code = ?", rate, CODE);
+            long start = System.nanoTime();
+            notifyAsOtherNode("{\"node\":\"test-node\",\"sentAt\":" + System.currentTimeMillis()
+                + ",\"resync\":false,\"events\":[{\"type\":\"UPDATED\",\"code\":\"GBP\",\"exchangeRate\":" + rate + "}]}");
+            await(() -> hasRate(rate), 2_000);
+            latencies[round] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        log.info(String.format("Remote change applied after %.1f ms (median of %d), max %.1f ms",
+            latencies[ROUNDS / 2] / 1e6, ROUNDS, latencies[ROUNDS - 1] / 1e6));
+    }
+
+    @Test
+    void reconnectFallsBackToFullResync() throws InterruptedException {
+        long resyncs = clusterNotifier.getResyncCount();
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity"
+            + " WHERE application_name = 'currency-cluster-listener'");
+
+        // Changed while the listener is down, so no notification will ever arrive for it
+        BigDecimal newRate = new BigDecimal("2.3456");
+        jdbcTemplate.update("UPDATE currencies SET exchange_rate = ? WHERE code = ?", newRate, CODE);
+
+        await(() -> hasRate(newRate), 10_000);
+        assertTrue(clusterNotifier.getResyncCount() > resyncs);
+        assertTrue(clusterNotifier.isConnected());
+    }
+
+    private boolean hasRate(BigDecimal rate) {
+        return rate.compareTo(currencyService.getCurrencyByCode(CODE).orElseThrow().getExchangeRate()) == 0;
+    }
+
+    private void notifyAsOtherNode(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify('currency_changes', ?)", payload);
+    }
+
+    private static void await(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within " + timeoutMillis + " ms");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.currencymanagement.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Exports millions of history rows through a small heap: the export must stream rather than
+ * materialize the table. Needs the database from application.properties; run with
+ * {@code mvn test -Dbenchmark=true -DargLine=-Xmx128m}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CurrencyExportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyExportBenchmarkTest.class);
+
+    private static final String CODE = "ZZX";
+    private static final int ROWS = 2_000_000;
+    private static final long MAX_HEAP_BYTES = 256L * 1024 * 1024;
+
+    @Autowired
+    private CurrencyExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertHistory() {
+        assumeTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP_BYTES,
+            "run with a small heap (-DargLine=-Xmx128m) so that buffering the export would fail");
+        jdbcTemplate.update("INSERT INTO currency_rate_history (code, exchange_rate, effective_at)"
+            + " SELECT ?, 1 + (n % 10000) / 10000.0, TIMESTAMP '2020-01-01' + n * INTERVAL '1 second'"
+            + " FROM generate_series(1, ?) AS n", CODE, ROWS);
+    }
+
+    @AfterEach
+    void deleteHistory() {
+        jdbcTemplate.update("DELETE FROM currency_rate_history WHERE code = ?", CODE);
+    }
+
+    @Test
+    void exportStreamsWithFlatHeap() {
+        long total = jdbcTemplate.queryForObject("SELECT count(*) FROM currency_rate_history", Long.class);
+        for (DataFormat format : DataFormat.values()) {
+            System.gc();
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+            LineCountingOutputStream out = new LineCountingOutputStream();
+
+            long start = System.nanoTime();
+            long rows = exportService.exportRateHistory(format, out);
+            long nanos = System.nanoTime() - start;
+
+            assertEquals(total, rows);
+            assertEquals(format == DataFormat.CSV ? total + 1 : total, out.lines);
+            log.info(String.format("%s: %d rows, %.1f MB in %.2f s (%.0f rows/s), peak heap %.1f MB of %.0f MB",
+                format, rows, out.bytes / 1e6, nanos / 1e9, rows / (nanos / 1e9),
+                peakHeapBytes() / 1e6, Runtime.getRuntime().maxMemory() / 1e6));
+        }
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
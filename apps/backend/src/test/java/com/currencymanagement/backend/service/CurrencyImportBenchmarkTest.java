@@ -0,0 +1,141 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CurrencyImportResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Imports a million generated records per format. The input is produced while it is read, so any
+ * heap growth comes from the import itself. Needs the database from application.properties; run with
+ * {@code mvn test -Dbenchmark=true -DargLine=-Xmx128m}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CurrencyImportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyImportBenchmarkTest.class);
+
+    private static final int RECORDS = 1_000_000;
+    // Every 1000th record has no name and must be reported, not written
+    private static final int INVALID_EVERY = 1000;
+    // Codes are a digit followed by two alphanumerics, so they never clash with real ones
+    private static final String ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int CODES = 10 * 36 * 36;
+
+    @Autowired
+    private CurrencyImportService importService;
+
+    @Autowired
+    private CurrencySnapshotCache snapshotCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteImported() {
+        jdbcTemplate.update("DELETE FROM currency_rate_history WHERE code ~ '^[0-9]'");
+        jdbcTemplate.update("DELETE FROM currencies WHERE code ~ '^[0-9]'");
+        snapshotCache.refresh();
+    }
+
+    @Test
+    void importMillionsOfRecordsWithBoundedHeap() throws IOException {
+        for (DataFormat format : DataFormat.values()) {
+            System.gc();
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            CurrencyImportResponse response = importService.importCurrencies(format, new GeneratedInput(format));
+
+            int invalid = RECORDS / INVALID_EVERY;
+            assertEquals(RECORDS, response.getRecords());
+            assertEquals(invalid, response.getFailed());
+            assertEquals(RECORDS - invalid, response.getCreated() + response.getUpdated() + response.getUnchanged());
+            assertEquals(0, response.getSkipped());
+            log.info(String.format("%s: %d records in %.2f s (%d rows/s), %d created, %d updated, %d failed,"
+                    + " peak heap %.1f MB of %.0f MB",
+                format, response.getRecords(), response.getDurationMs() / 1e3, response.getRowsPerSecond(),
+                response.getCreated(), response.getUpdated(), response.getFailed(),
+                peakHeapBytes() / 1e6, Runtime.getRuntime().maxMemory() / 1e6));
+        }
+        assertEquals(CODES, jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM currencies WHERE code ~ '^[0-9]'", Integer.class));
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Produces the records of one format line by line as they are read.
+     */
+    private static final class GeneratedInput extends InputStream {
+
+        private final DataFormat format;
+        private int record = -1;
+        private byte[] line;
+        private int position;
+
+        GeneratedInput(DataFormat format) {
+            this.format = format;
+            this.line = format == DataFormat.CSV
+                ? "code,name,symbol,exchangeRate\n".getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean nextLine() {
+            if (++record >= RECORDS) {
+                return false;
+            }
+            int index = record % CODES;
+            String code = "" + ALPHANUMERIC.charAt(index / (36 * 36))
+                + ALPHANUMERIC.charAt(index / 36 % 36) + ALPHANUMERIC.charAt(index % 36);
+            String name = record % INVALID_EVERY == INVALID_EVERY - 1 ? "" : "Imported " + code;
+            String rate = (1 + record % 10_000) + "." + (record % 10_000);
+            String text = format == DataFormat.CSV
+                ? code + "," + name + "," + code + "," + rate + "\n"
+                : "{\"code\":\"" + code + "\",\"name\":\"" + name + "\",\"symbol\":\"" + code
+                    + "\",\"exchangeRate\":" + rate + "}\n";
+            line = text.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.currencymanagement.backend.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CurrencyImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test
+    void csvRecordsKeepTheirStartingLine() throws IOException {
+        List<CurrencyImportReader.ImportRecord> records = readAll(DataFormat.CSV,
+            "\uFEFFid,Code,exchange_rate,name,symbol\r\n"
+            + "1,EUR,0.92,Euro,€\r\n"
+            + "\n"
+            + "2,XAA,1.5,\"Multi\nline, \"\"quoted\"\"\",X\n"
+            + "3,XBB,abc,Bad rate,B\n"
+            + "4,XCC\n"
+            + "5,XDD,2,,D");
+
+        assertEquals(5, records.size());
+        CurrencyImportReader.ImportRecord euro = records.get(0);
+        assertEquals(2, euro.line());
+        assertEquals("Euro", euro.request().getName());
+        assertEquals("€", euro.request().getSymbol());
+        assertEquals(0, new BigDecimal("0.92").compareTo(euro.request().getExchangeRate()));
+
+        CurrencyImportReader.ImportRecord quoted = records.get(1);
+        assertEquals(4, quoted.line());
+        assertEquals("Multi\nline, \"quoted\"", quoted.request().getName());
+
+        assertEquals(6, records.get(2).line());
+        assertEquals("XBB", records.get(2).code());
+        assertNotNull(records.get(2).error());
+
+        assertEquals(7, records.get(3).line());
+        assertNotNull(records.get(3).error());
+
+        // An empty field reads as missing and is left for validation to reject
+        CurrencyImportReader.ImportRecord missingName = records.get(4);
+        assertEquals(8, missingName.line());
+        assertNull(missingName.error());
+        assertNull(missingName.request().getName());
+    }
+
+    @Test
+    void csvHeaderMustNameEveryRequiredColumn() {
+        assertThrows(IllegalArgumentException.class, () -> readAll(DataFormat.CSV, "code,name,rate\nEUR,Euro,1\n"));
+        assertThrows(IllegalArgumentException.class, () -> readAll(DataFormat.CSV, ""));
+    }
+
+    @Test
+    void ndjsonReportsMalformedLinesAndIgnoresUnknownProperties() throws IOException {
+        List<CurrencyImportReader.ImportRecord> records = readAll(DataFormat.NDJSON,
+            "{\"id\":1,\"code\":\"EUR\",\"name\":\"Euro\",\"symbol\":\"€\",\"exchangeRate\":0.9200,\"version\":3}\n"
+            + "\n"
+            + "{\"code\":\"XAA\",\n"
+            + "null\r\n"
+            + "{\"code\":\"XBB\",\"name\":\"B\",\"symbol\":\"B\",\"exchangeRate\":2}");
+
+        assertEquals(4, records.size());
+        assertEquals("EUR", records.get(0).code());
+        assertNull(records.get(0).error());
+        assertEquals(3, records.get(1).line());
+        assertNotNull(records.get(1).error());
+        assertEquals(4, records.get(2).line());
+        assertNotNull(records.get(2).error());
+        assertEquals(5, records.get(3).line());
+        assertEquals(0, BigDecimal.valueOf(2).compareTo(records.get(3).request().getExchangeRate()));
+    }
+
+    @Test
+    void oversizedRecordsAreReportedWithoutBuffering() throws IOException {
+        String huge = "x".repeat(CurrencyImportReader.MAX_RECORD_CHARS * 4);
+        List<CurrencyImportReader.ImportRecord> ndjson = readAll(DataFormat.NDJSON,
+            "{\"name\":\"" + huge + "\"}\n{\"code\":\"EUR\"}\n");
+        assertEquals(2, ndjson.size());
+        assertNotNull(ndjson.get(0).error());
+        assertEquals("EUR", ndjson.get(1).code());
+
+        List<CurrencyImportReader.ImportRecord> csv = readAll(DataFormat.CSV,
+            "code,name,symbol,exchangeRate\n" + ",".repeat(CurrencyImportReader.MAX_RECORD_CHARS * 4) + "\nEUR,Euro,E,1\n");
+        assertEquals(2, csv.size());
+        assertNotNull(csv.get(0).error());
+        assertEquals(3, csv.get(1).line());
+        assertNull(csv.get(1).error());
+    }
+
+    private List<CurrencyImportReader.ImportRecord> readAll(DataFormat format, String input) throws IOException {
+        CurrencyImportReader reader = new CurrencyImportReader(format,
+            new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), objectMapper);
+        List<CurrencyImportReader.ImportRecord> records = new ArrayList<>();
+        CurrencyImportReader.ImportRecord record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,90 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.CreateCurrencyRequest;
+import com.currencymanagement.backend.dto.CurrencyImportResponse;
+import com.currencymanagement.backend.entity.Currency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every write path appends to the rate history only when the rate actually changes.
+ */
+@SpringBootTest
+class CurrencyRateHistoryTest {
+
+    private static final String CODE = "ZZH";
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyImportService importService;
+
+    private Currency currency;
+    // History outlives deleted currencies, so earlier runs may have left rows for the code
+    private int initialHistory;
+
+    @BeforeEach
+    void createCurrency() {
+        currency = currencyService.saveCurrency(new Currency(CODE, "History Test", "H", new BigDecimal("1.5000")));
+        initialHistory = currencyService.getRateHistory(CODE, LocalDateTime.now().minusHours(1),
+            LocalDateTime.now().plusHours(1), 1000).size();
+    }
+
+    @AfterEach
+    void deleteCurrency() {
+        currencyService.getCurrencyByCode(CODE).ifPresent(current -> currencyService.deleteCurrency(current.getId()));
+    }
+
+    @Test
+    void nameOnlyBatchAddsNoHistory() {
+        assertEquals(0, addedHistory());
+
+        currencyService.upsertCurrencies(List.of(new CreateCurrencyRequest(CODE, "Renamed", "H", new BigDecimal("1.5"))));
+        assertEquals("Renamed", currencyService.getCurrencyByCode(CODE).orElseThrow().getName());
+        assertEquals(0, addedHistory());
+
+        currencyService.upsertCurrencies(List.of(new CreateCurrencyRequest(CODE, "Renamed", "H", new BigDecimal("1.75"))));
+        assertEquals(1, addedHistory());
+    }
+
+    @Test
+    void nameOnlyImportAddsNoHistory() throws IOException {
+        CurrencyImportResponse response = importCsv(CODE + ",Imported,H,1.5");
+        assertEquals(1, response.getUpdated());
+        assertEquals(0, addedHistory());
+
+        importCsv(CODE + ",Imported,H,2.25");
+        assertEquals(1, addedHistory());
+    }
+
+    @Test
+    void conditionalUpdateToTheSameRateAddsNoHistory() {
+        assertTrue(currencyService.updateRate(currency.getId(), currency.getVersion(), new BigDecimal("1.5000"))
+            .orElseThrow().applied());
+        assertEquals(0, addedHistory());
+    }
+
+    private CurrencyImportResponse importCsv(String row) throws IOException {
+        String csv = "code,name,symbol,exchange_rate\n" + row + "\n";
+        return importService.importCurrencies(DataFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private int addedHistory() {
+        return currencyService.getRateHistory(CODE, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1), 1000)
+            .size() - initialHistory;
+    }
+}
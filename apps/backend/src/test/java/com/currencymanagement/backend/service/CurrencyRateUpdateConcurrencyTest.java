@@ -0,0 +1,142 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.repository.CurrencyBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel publishers doing read-modify-write increments through the conditional rate update.
+ * Every increment must land exactly once: no update may overwrite another one unseen.
+ */
+@SpringBootTest
+class CurrencyRateUpdateConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyRateUpdateConcurrencyTest.class);
+
+    private static final String CODE = "ZZC";
+    private static final int PUBLISHERS = 8;
+    private static final int INCREMENTS_PER_PUBLISHER = 25;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    private Currency currency;
+
+    @BeforeEach
+    void createCurrency() {
+        currency = currencyService.saveCurrency(new Currency(CODE, "Concurrency Test", "Z", BigDecimal.ONE));
+    }
+
+    @AfterEach
+    void deleteCurrency() {
+        currencyService.deleteCurrency(currency.getId());
+    }
+
+    @Test
+    void parallelPublishersNeverLoseAnUpdate() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PUBLISHERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> conflicts = new ArrayList<>();
+        try {
+            for (int p = 0; p < PUBLISHERS; p++) {
+                Callable<Integer> publisher = () -> {
+                    start.await();
+                    int retries = 0;
+                    Currency current = currencyService.getCurrencyById(currency.getId()).orElseThrow();
+                    for (int i = 0; i < INCREMENTS_PER_PUBLISHER; i++) {
+                        while (true) {
+                            CurrencyBatchRepository.RateUpdate update = currencyService.updateRate(currency.getId(),
+                                current.getVersion(), current.getExchangeRate().add(BigDecimal.ONE)).orElseThrow();
+                            // On a conflict the response already holds the row to retry against
+                            current = update.currency();
+                            if (update.applied()) {
+                                break;
+                            }
+                            retries++;
+                        }
+                    }
+                    return retries;
+                };
+                conflicts.add(executor.submit(publisher));
+            }
+            start.countDown();
+
+            int totalConflicts = 0;
+            for (Future<Integer> future : conflicts) {
+                totalConflicts += future.get(60, TimeUnit.SECONDS);
+            }
+            log.info("{} increments from {} publishers, {} version conflicts retried",
+                PUBLISHERS * INCREMENTS_PER_PUBLISHER, PUBLISHERS, totalConflicts);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int increments = PUBLISHERS * INCREMENTS_PER_PUBLISHER;
+        Currency result = currencyService.getCurrencyById(currency.getId()).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(1 + increments).compareTo(result.getExchangeRate()));
+        assertEquals(currency.getVersion() + increments, result.getVersion());
+        assertEquals(increments + 1, currencyService.getRateHistory(CODE,
+            LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1), 10_000).size());
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        Long staleVersion = currency.getVersion();
+        assertTrue(currencyService.updateRate(currency.getId(), staleVersion, new BigDecimal("2.0000"))
+            .orElseThrow().applied());
+        CurrencyBatchRepository.RateUpdate conflict =
+            currencyService.updateRate(currency.getId(), staleVersion, new BigDecimal("3.0000")).orElseThrow();
+        assertFalse(conflict.applied());
+        assertEquals(staleVersion + 1, conflict.currency().getVersion());
+        assertTrue(currencyService.updateRate(-1L, 0, BigDecimal.ONE).isEmpty());
+
+        // A full-entity save carrying the stale version is refused as well
+        Currency stale = new Currency(currency);
+        stale.setExchangeRate(new BigDecimal("4.0000"));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> currencyService.saveCurrency(stale));
+
+        Currency result = currencyService.getCurrencyById(currency.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("2.0000").compareTo(result.getExchangeRate()));
+        assertEquals(staleVersion + 1, result.getVersion());
+    }
+
+    @Test
+    void saveWithoutVersionOverwritesTheCurrentRow() {
+        // The version moves on behind the caller's back, as a tick flush or another instance would
+        assertTrue(currencyService.updateRate(currency.getId(), currency.getVersion(), new BigDecimal("2.0000"))
+            .orElseThrow().applied());
+
+        Currency update = new Currency(CODE, "Renamed", "Z", new BigDecimal("5.0000"));
+        update.setId(currency.getId());
+        Currency saved = currencyService.saveCurrency(update);
+
+        assertEquals(currency.getVersion() + 2, saved.getVersion());
+        assertEquals(currency.getCreatedAt(), saved.getCreatedAt());
+        Currency result = currencyService.getCurrencyById(currency.getId()).orElseThrow();
+        assertEquals("Renamed", result.getName());
+        assertEquals(0, new BigDecimal("5.0000").compareTo(result.getExchangeRate()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurrencySearchIndexTest {
+
+    private static final List<Currency> CATALOG = List.of(
+        currency("USD", "United States Dollar", "$"),
+        currency("AUD", "Australian Dollar", "A$"),
+        currency("VND", "Đồng Việt Nam", "₫"),
+        currency("DOT", "Polkadot", "DOT"),
+        currency("EUR", "Euro", "€"),
+        currency("XAU", "Vàng (ounce)", "oz"),
+        currency("SGD", "Singapore Dollar", "S$"));
+
+    private final CurrencySearchIndex index = new CurrencySearchIndex(CATALOG);
+
+    @Test
+    void foldsCaseAccentsAndPunctuation() {
+        assertEquals("dong viet nam", CurrencySearchIndex.fold("Đồng  Việt-Nam"));
+        assertEquals("vang ounce", CurrencySearchIndex.fold("Vàng (ounce)"));
+        assertEquals("", CurrencySearchIndex.fold("  ₫ "));
+    }
+
+    @Test
+    void matchesAccentedNamesWithOrWithoutAccents() {
+        assertEquals(List.of("VND"), codes(index.search("viet", 10)));
+        assertEquals(List.of("VND"), codes(index.search("Việt Nam", 10)));
+        assertEquals(List.of("VND"), codes(index.search("nam dong", 10)));
+        assertEquals(List.of("XAU"), codes(index.search("vang", 10)));
+    }
+
+    @Test
+    void ranksCodeMatchesBeforeNameMatches() {
+        // Code prefix, then a name starting with the word, then a later word, shorter names first
+        assertEquals(List.of("DOT", "VND", "SGD", "AUD", "USD"), codes(index.search("do", 10)));
+        assertEquals(List.of("DOT", "VND"), codes(index.search("do", 2)));
+        assertEquals(List.of("DOT"), codes(index.search("dot", 10)));
+        assertEquals(List.of("SGD", "AUD", "USD"), codes(index.search("ollar", 10)));
+        assertEquals(List.of("USD"), codes(index.search("$", 10)));
+        assertEquals(List.of("AUD"), codes(index.search("a$", 10)));
+        assertEquals(List.of("EUR"), codes(index.search("€", 10)));
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void keepsTheStructureWhenOnlyRatesChange() {
+        List<Currency> repriced = CATALOG.stream().map(currency -> {
+            Currency copy = new Currency(currency);
+            copy.setExchangeRate(new BigDecimal("2.0000"));
+            return copy;
+        }).toList();
+        assertTrue(index.indexes(repriced));
+        Currency vnd = index.withCurrencies(repriced).search("VND", 1).get(0);
+        assertSame(repriced.get(2), vnd);
+
+        List<Currency> renamed = List.of(currency("USD", "US Dollar", "$"));
+        assertFalse(index.indexes(renamed));
+    }
+
+    private static List<String> codes(List<Currency> currencies) {
+        return currencies.stream().map(Currency::getCode).toList();
+    }
+
+    private static Currency currency(String code, String name, String symbol) {
+        return new Currency(code, name, symbol, BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,160 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import com.currencymanagement.backend.repository.CurrencyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * The copy-on-write snapshot: when it is rebuilt, which catalog version it carries, and how the
+ * overlay of rate ticks not written yet is applied, kept across rebuilds and dropped again.
+ */
+@SpringBootTest
+class CurrencySnapshotCacheTest {
+
+    private static final String CODE = "ZZS";
+
+    @Autowired
+    private CurrencySnapshotCache cache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoSpyBean
+    private CurrencyRepository currencyRepository;
+
+    private Currency currency;
+
+    @BeforeEach
+    void createCurrency() {
+        currency = currencyService.saveCurrency(new Currency(CODE, "Snapshot Test", "S", BigDecimal.ONE));
+    }
+
+    @AfterEach
+    void deleteCurrency() {
+        currencyService.deleteCurrency(currency.getId());
+    }
+
+    @Test
+    void rebuildsAndBumpsTheVersionOnlyOnceTheWriteCommits() {
+        CurrencySnapshot before = cache.get();
+        long version = catalogVersion.get();
+        assertEquals(version, before.getVersion());
+
+        transaction().executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE currencies SET name = 'Renamed' WHERE code = ?", CODE);
+            cache.refreshAfterCommit();
+            assertSame(before, cache.get());
+            assertEquals(version, catalogVersion.get());
+        });
+
+        CurrencySnapshot after = cache.get();
+        assertEquals(version + 1, after.getVersion());
+        assertEquals(version + 1, catalogVersion.get());
+        assertEquals("Renamed", after.findByCode(CODE).getName());
+
+        // A rolled back write changes nothing
+        transaction().executeWithoutResult(status -> {
+            cache.refreshAfterCommit();
+            status.setRollbackOnly();
+        });
+        assertSame(after, cache.get());
+        assertEquals(version + 1, catalogVersion.get());
+    }
+
+    @Test
+    void failedRebuildFallsBackToTheDatabaseAndStillBumpsTheVersion() {
+        cache.get();
+        long version = catalogVersion.get();
+        doThrow(new DataAccessResourceFailureException("database unavailable")).when(currencyRepository).findAll();
+
+        cache.refresh();
+        assertEquals(version + 1, catalogVersion.get());
+        // The stale snapshot is gone: reads go to the database, which is failing too
+        assertThrows(DataAccessResourceFailureException.class, cache::get);
+
+        reset(currencyRepository);
+        assertEquals(version + 1, cache.get().getVersion());
+    }
+
+    @Test
+    void pendingRatesOverlayEveryRebuildUntilReleased() {
+        BigDecimal tick = new BigDecimal("7.0000");
+        Map<String, BigDecimal> rates = Map.of(CODE, tick);
+        long version = catalogVersion.get();
+
+        cache.applyPendingRates(rates);
+        assertEquals(version + 1, catalogVersion.get());
+        CurrencySnapshot overlaid = cache.get();
+        assertEquals(version + 1, overlaid.getVersion());
+        assertEquals(tick, overlaid.findByCode(CODE).getExchangeRate());
+        assertTrue(cache.isPendingRate(CODE, tick));
+        // Equal in value is not enough: only the accepted instance is the pending one
+        assertFalse(cache.isPendingRate(CODE, new BigDecimal("7.0000")));
+
+        cache.refresh();
+        assertEquals(tick, cache.get().findByCode(CODE).getExchangeRate());
+
+        cache.releasePendingRates(rates);
+        assertFalse(cache.isPendingRate(CODE, tick));
+        cache.refresh();
+        assertEquals(0, BigDecimal.ONE.compareTo(cache.get().findByCode(CODE).getExchangeRate()));
+    }
+
+    @Test
+    void committedWriteDiscardsOnlyTheTicksPendingBeforeIt() {
+        BigDecimal before = new BigDecimal("8.0000");
+        BigDecimal after = new BigDecimal("9.0000");
+        cache.applyPendingRates(Map.of(CODE, before));
+
+        transaction().executeWithoutResult(status -> {
+            cache.discardPendingRatesAfterCommit(List.of(CODE));
+            assertTrue(cache.isPendingRate(CODE, before));
+        });
+        assertFalse(cache.isPendingRate(CODE, before));
+
+        cache.applyPendingRates(Map.of(CODE, before));
+        transaction().executeWithoutResult(status -> {
+            cache.discardPendingRatesAfterCommit(List.of(CODE));
+            // Accepted while the write was in flight, so newer than what it writes
+            cache.applyPendingRates(Map.of(CODE, after));
+        });
+        assertTrue(cache.isPendingRate(CODE, after));
+        assertEquals(after, cache.get().findByCode(CODE).getExchangeRate());
+
+        cache.releasePendingRates(Map.of(CODE, after));
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,36 @@
+package com.currencymanagement.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaCursorTest {
+
+    @Test
+    void roundTripsThroughItsToken() {
+        DeltaCursor cursor = new DeltaCursor(LocalDateTime.of(2024, 1, 1, 10, 30, 0, 123_456_000), 42);
+        assertEquals(cursor, DeltaCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void cursorBeforeATimeSortsAfterEveryEarlierRowAndBeforeRowsAtThatTime() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 10, 30, 0, 500_000);
+        DeltaCursor before = DeltaCursor.before(time);
+
+        assertTrue(before.compareTo(new DeltaCursor(time.minusNanos(1000), 7)) > 0);
+        assertTrue(before.compareTo(new DeltaCursor(time, 1)) < 0);
+        assertEquals(before, DeltaCursor.decode(before.encode()));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> DeltaCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> DeltaCursor.decode("bm9uc2Vuc2U"));
+        assertThrows(IllegalArgumentException.class, () -> DeltaCursor.decode(
+            new DeltaCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 1).encode().substring(3)));
+    }
+}
@@ -0,0 +1,131 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.ValuationLine;
+import com.currencymanagement.backend.dto.ValuationResponse;
+import com.currencymanagement.backend.entity.Currency;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioValuationTest {
+
+    private static final RateTable RATES = new RateTable(List.of(
+        currency("USD", "1.0000"),
+        currency("EUR", "0.9200"),
+        currency("VND", "24500.0000"),
+        currency("XAU", "0.0005")));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void valuesEachLineLikeConvertAndSumsExactly() throws IOException {
+        PortfolioValuation valuation = value("""
+            {"holdings": [
+              {"code": "eur", "amount": 100.5},
+              {"code": "VND", "amount": "1000000"},
+              {"code": "USD", "amount": 1, "note": {"ignored": [1, 2]}},
+              {"code": "XXX", "amount": 5},
+              {"code": "XAU", "amount": 1e30}
+            ], "target": "usd"}""", 2, null);
+
+        ValuationResponse response = write(valuation);
+        assertEquals("USD", response.getTarget());
+        assertEquals(5, response.getHoldings());
+        assertEquals(2, response.getFailed());
+        List<ValuationLine> lines = response.getLines();
+        assertEquals("EUR", lines.get(0).getCode());
+        assertEquals(new BigDecimal("100.5000"), lines.get(0).getAmount());
+        assertEquals(new BigDecimal(RATES.convert(1_005_000, RATES.indexOf("EUR"), 0)).movePointLeft(4), lines.get(0).getValue());
+        assertEquals(new BigDecimal("40.8163"), lines.get(1).getValue());
+        assertEquals("XXX", lines.get(3).getCode());
+        assertNull(lines.get(3).getValue());
+        assertEquals("Không tìm thấy tiền tệ", lines.get(3).getError());
+        assertNull(lines.get(4).getAmount());
+        assertEquals(lines.get(0).getValue().add(lines.get(1).getValue()).add(BigDecimal.ONE.setScale(4)), response.getTotal());
+    }
+
+    @Test
+    void formatsAmountsLikeBigDecimalAtTheAmountScale() throws IOException {
+        PortfolioValuation valuation = value("""
+            {"target": "VND", "holdings": [
+              {"code": "EUR", "amount": -0.00005},
+              {"code": "XAU", "amount": 922337203685477},
+              {"code": "USD", "amount": 0},
+              {"code": "ABC", "amount": -12.3456}
+            ]}""", 10, null);
+
+        String body = toJson(valuation);
+        assertTrue(body.contains("\"total\":0.0000,"), body);
+        assertTrue(body.contains("{\"code\":\"EUR\",\"amount\":0.0000,\"value\":0.0000}"), body);
+        assertTrue(body.contains("{\"code\":\"ABC\",\"amount\":-12.3456,\"error\":\"Không tìm thấy tiền tệ\"}"), body);
+        // The XAU value does not fit, so its line fails instead of the request
+        ValuationLine xau = objectMapper.readValue(body, ValuationResponse.class).getLines().get(1);
+        assertEquals(new BigDecimal("922337203685477.0000"), xau.getAmount());
+        assertEquals("Giá trị quy đổi vượt quá giới hạn", xau.getError());
+    }
+
+    @Test
+    void parallelChunksGiveTheSameResultAndCarryLargeTotals() throws IOException {
+        StringBuilder body = new StringBuilder("{\"target\": \"USD\", \"holdings\": [");
+        for (int i = 0; i < 1000; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"code\": \"").append(i % 2 == 0 ? "USD" : "EUR")
+                .append("\", \"amount\": ").append(i % 14 == 0 ? "900000000000000" : i + ".125").append('}');
+        }
+        String request = body.append("]}").toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            String sequentialBody = toJson(value(request, 1000, null));
+            assertEquals(sequentialBody, toJson(value(request, 37, executor)));
+            ValuationResponse sequential = objectMapper.readValue(sequentialBody, ValuationResponse.class);
+            BigDecimal expected = sequential.getLines().stream().map(ValuationLine::getValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(expected, sequential.getTotal());
+            assertEquals(1, expected.unscaledValue().compareTo(BigInteger.valueOf(Long.MAX_VALUE)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsMalformedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> value("{\"target\": \"USD\"}", 10, null));
+        assertThrows(IllegalArgumentException.class, () -> value("{\"target\": \"USD\", \"holdings\": [{\"code\": \"EUR\"}]}", 10, null));
+        assertThrows(IllegalArgumentException.class, () -> value("{\"target\": \"USD\", \"holdings\": [{\"code\": \"EUR\", \"amount\": \"abc\"}]}", 10, null));
+        assertThrows(IllegalArgumentException.class, () -> value("{\"target\": \"USD\", \"holdings\": [{\"code\": \"EUR\", \"amount\": 1}", 10, null));
+        assertThrows(IllegalArgumentException.class, () -> value("{\"target\": \"USD\", \"holdings\": []} []", 10, null));
+        String tooMany = "{\"target\": \"USD\", \"holdings\": [" + "{\"code\": \"EUR\", \"amount\": 1},".repeat(3) + "{\"code\": \"EUR\", \"amount\": 1}]}";
+        assertThrows(IllegalArgumentException.class, () -> HoldingsReader.read(objectMapper.getFactory().createParser(tooMany), RATES, 3));
+    }
+
+    private PortfolioValuation value(String body, int chunkSize, ExecutorService executor) throws IOException {
+        HoldingsReader.Holdings holdings = HoldingsReader.read(objectMapper.getFactory().createParser(body), RATES, 1_000_000);
+        return PortfolioValuation.value(holdings, RATES, RATES.indexOf(holdings.getTarget()), 7, chunkSize, executor);
+    }
+
+    private ValuationResponse write(PortfolioValuation valuation) throws IOException {
+        return objectMapper.readValue(toJson(valuation), ValuationResponse.class);
+    }
+
+    private String toJson(PortfolioValuation valuation) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        valuation.writeTo(out, objectMapper.getFactory());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Currency currency(String code, String rate) {
+        return new Currency(code, code, code, new BigDecimal(rate));
+    }
+}
@@ -0,0 +1,65 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.entity.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateTableTest {
+
+    @Test
+    void convertMatchesBigDecimalReference() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long rateFrom = 1 + (random.nextLong() >>> 1) % 9_999_999_999L;
+            long rateTo = 1 + (random.nextLong() >>> 1) % 9_999_999_999L;
+            long amount = random.nextBoolean()
+                ? random.nextInt(1_000_000_000)
+                : (random.nextLong() >> random.nextInt(40));
+            RateTable table = table(rateFrom, rateTo);
+
+            BigDecimal expected = BigDecimal.valueOf(amount, RateTable.AMOUNT_SCALE)
+                .multiply(BigDecimal.valueOf(rateTo, RateTable.RATE_SCALE))
+                .divide(BigDecimal.valueOf(rateFrom, RateTable.RATE_SCALE), RateTable.AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+
+            if (expected.unscaledValue().bitLength() <= 63 && expected.unscaledValue().longValue() != Long.MIN_VALUE) {
+                assertEquals(expected.unscaledValue().longValueExact(), table.convert(amount, 0, 1),
+                    () -> amount + " * " + rateTo + " / " + rateFrom);
+            } else {
+                assertThrows(ArithmeticException.class, () -> table.convert(amount, 0, 1));
+            }
+        }
+    }
+
+    @Test
+    void crossRateRoundsHalfEven() {
+        RateTable table = table(9200, 1_100_000);
+        assertEquals(11_956_521_739L, table.crossRate(0, 1));
+        assertEquals(836_364L, table.crossRate(1, 0));
+    }
+
+    @Test
+    void skipsCurrenciesWithoutPositiveRate() {
+        RateTable table = new RateTable(List.of(
+            currency("USD", BigDecimal.ONE),
+            currency("XXX", BigDecimal.ZERO)));
+        assertEquals(1, table.size());
+        assertEquals(-1, table.indexOf("XXX"));
+    }
+
+    private static RateTable table(long rateFrom, long rateTo) {
+        return new RateTable(List.of(
+            currency("AAA", BigDecimal.valueOf(rateFrom, RateTable.RATE_SCALE)),
+            currency("BBB", BigDecimal.valueOf(rateTo, RateTable.RATE_SCALE))));
+    }
+
+    private static Currency currency(String code, BigDecimal rate) {
+        return new Currency(code, code, code, rate);
+    }
+}
@@ -0,0 +1,102 @@
+package com.currencymanagement.backend.service;
+
+import com.currencymanagement.backend.dto.RateTick;
+import com.currencymanagement.backend.entity.Currency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Publishers ticking the same code at once: whatever rate readers end up seeing must be the one
+ * the flush writes, never a rate that only lives in this instance's overlay.
+ */
+@SpringBootTest
+class RateTickIngestionServiceTest {
+
+    private static final String CODE = "ZZT";
+    private static final int PUBLISHERS = 8;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private RateTickIngestionService ingestionService;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyCandleService candleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Currency currency;
+
+    @BeforeEach
+    void createCurrency() {
+        currency = currencyService.saveCurrency(new Currency(CODE, "Tick Test", "T", BigDecimal.ONE));
+    }
+
+    @AfterEach
+    void deleteCurrency() {
+        ingestionService.flush();
+        currencyService.deleteCurrency(currency.getId());
+    }
+
+    @Test
+    void concurrentTicksForOneCodeFlushTheRateReadersSee() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PUBLISHERS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> publishers = new ArrayList<>();
+                for (int p = 0; p < PUBLISHERS; p++) {
+                    BigDecimal rate = BigDecimal.valueOf(2 + round * PUBLISHERS + p);
+                    publishers.add(executor.submit(() -> {
+                        start.await();
+                        return ingestionService.submit(List.of(new RateTick(CODE, rate)));
+                    }));
+                }
+                start.countDown();
+                for (Future<?> publisher : publishers) {
+                    publisher.get(10, TimeUnit.SECONDS);
+                }
+                ingestionService.flush();
+
+                BigDecimal shown = currencyService.getCurrencyByCode(CODE).orElseThrow().getExchangeRate();
+                BigDecimal stored = jdbcTemplate.queryForObject(
+                    "SELECT exchange_rate FROM currencies WHERE code = ?", BigDecimal.class, CODE);
+                assertEquals(0, shown.compareTo(stored), "round " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, ingestionService.getPendingCount());
+    }
+
+    @Test
+    void unchangedRateIsNeitherWrittenNorRecorded() {
+        long version = jdbcTemplate.queryForObject("SELECT version FROM currencies WHERE code = ?", Long.class, CODE);
+        long recordedTicks = candleService.getRecordedTickCount();
+
+        ingestionService.submit(List.of(new RateTick(CODE, new BigDecimal("1.00"))));
+        ingestionService.flush();
+
+        assertEquals(version, jdbcTemplate.queryForObject("SELECT version FROM currencies WHERE code = ?", Long.class, CODE));
+        assertEquals(recordedTicks, candleService.getRecordedTickCount());
+        assertEquals(0, ingestionService.getPendingCount());
+    }
+}
@@ -0,0 +1,51 @@
+package com.currencymanagement.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaLagGuardTest {
+
+    @Test
+    void replicaIsUsableOnlyAfterReplayingPastTheLastWrite() {
+        ReplicaLagGuard guard = new ReplicaLagGuard();
+        assertFalse(guard.isReplicaCaughtUp(), "never polled");
+
+        guard.update(0, 100, true, 100);
+        assertTrue(guard.isReplicaCaughtUp());
+
+        guard.markWrite();
+        assertFalse(guard.isReplicaCaughtUp(), "write not covered by a poll yet");
+
+        guard.update(1, 200, true, 150);
+        assertFalse(guard.isReplicaCaughtUp(), "replica still behind the write");
+
+        // Later primary activity must not move the target: only the write needs to be replayed
+        guard.update(1, 300, true, 200);
+        assertTrue(guard.isReplicaCaughtUp());
+    }
+
+    @Test
+    void writeMarkedDuringAPollWaitsForTheNextPoll() {
+        ReplicaLagGuard guard = new ReplicaLagGuard();
+        guard.update(0, 100, true, 100);
+
+        guard.markWrite();
+        guard.markWrite();
+        // This poll read the sequence between the two writes
+        guard.update(1, 200, true, 500);
+        assertFalse(guard.isReplicaCaughtUp());
+
+        guard.update(2, 600, true, 600);
+        assertTrue(guard.isReplicaCaughtUp());
+    }
+
+    @Test
+    void serverNotInRecoveryIsNeverBehind() {
+        ReplicaLagGuard guard = new ReplicaLagGuard();
+        guard.markWrite();
+        guard.update(1, 1_000, false, 0);
+        assertTrue(guard.isReplicaCaughtUp());
+    }
+}
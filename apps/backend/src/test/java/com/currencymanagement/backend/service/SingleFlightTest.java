@@ -0,0 +1,118 @@
+package com.currencymanagement.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(5_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flight.execute("EUR", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "euro";
+            })));
+        }
+        awaitCollapsed(flight, CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("euro", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.getExecutionCount());
+        assertEquals(0, flight.getInFlightCount());
+
+        flight.execute("EUR", () -> "again");
+        assertEquals(2, flight.getExecutionCount());
+        executor.shutdown();
+    }
+
+    @Test
+    void waitersGetTheLoadersException() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        Future<String> loader = executor.submit(() -> flight.execute("EUR", () -> {
+            await(release);
+            throw failure;
+        }));
+        awaitInFlight(flight);
+        Future<String> waiter = executor.submit(() -> flight.execute("EUR", () -> "not called"));
+        awaitCollapsed(flight, 1);
+        release.countDown();
+
+        for (Future<String> result : List.of(loader, waiter)) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void waitersGiveUpAfterTheTimeout() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(20);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> loader = executor.submit(() -> flight.execute("EUR", () -> {
+            await(release);
+            return "euro";
+        }));
+        awaitInFlight(flight);
+
+        assertThrows(QueryTimeoutException.class, () -> flight.execute("EUR", () -> "not called"));
+        assertEquals(1, flight.getTimeoutCount());
+        release.countDown();
+        assertEquals("euro", loader.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitInFlight(SingleFlight<?, ?> flight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getInFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, flight.getInFlightCount());
+    }
+
+    private static void awaitCollapsed(SingleFlight<?, ?> flight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.getCollapsedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, flight.getCollapsedCount());
+    }
+}
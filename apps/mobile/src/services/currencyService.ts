@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { Currency, PagedResponse, PaginationParams } from '../types';
+import { Currency, CurrencyChanges, PagedResponse, PaginationParams } from '../types';
 import { API_ENDPOINTS } from '../constants';
 
 // For development, use your local machine's IP address
@@ -51,6 +51,44 @@ export const currencyService = {
     }
   },
 
+  // Changes since the cursor of the previous call; without a cursor the whole catalog with reset = true.
+  // Apply currencies by code and drop deleted codes, then call again while hasMore is set.
+  getChanges: async (since?: string, limit = 1000): Promise<CurrencyChanges> => {
+    try {
+      const queryParams = new URLSearchParams({ limit: limit.toString() });
+      if (since) {
+        queryParams.set('since', since);
+      }
+
+      const response = await api.get<CurrencyChanges>(
+        `${API_ENDPOINTS.CURRENCIES}/changes?${queryParams}`
+      );
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching currency changes:', error);
+      throw error;
+    }
+  },
+
+  syncCurrencies: async (
+    local: Map<string, Currency>,
+    since?: string
+  ): Promise<{ currencies: Map<string, Currency>; cursor: string }> => {
+    let currencies = local;
+    let cursor = since;
+    let changes: CurrencyChanges;
+    do {
+      changes = await currencyService.getChanges(cursor);
+      if (changes.reset) {
+        currencies = new Map();
+      }
+      changes.currencies.forEach((currency) => currencies.set(currency.code, currency));
+      changes.deleted.forEach((code) => currencies.delete(code));
+      cursor = changes.nextCursor;
+    } while (changes.hasMore);
+    return { currencies, cursor };
+  },
+
   getCurrencyByCode: async (code: string): Promise<Currency> => {
     try {
       const response = await api.get<Currency>(`${API_ENDPOINTS.CURRENCIES}/${code}`);
@@ -20,6 +20,14 @@ export interface PagedResponse<T> {
   empty: boolean;
 }
 
+export interface CurrencyChanges {
+  currencies: Currency[];
+  deleted: string[];
+  nextCursor: string;
+  hasMore: boolean;
+  reset: boolean;
+}
+
 export interface PaginationParams {
   page?: number;
   size?: number;
@@ -39,6 +39,12 @@ export const currencyService = {
     return response.data;
   },
 
+  searchCurrencies: async (query: string, limit = 10): Promise<Currency[]> => {
+    const queryParams = new URLSearchParams({ q: query, limit: limit.toString() });
+    const response = await api.get<Currency[]>(`${API_ENDPOINTS.CURRENCIES}/search?${queryParams}`);
+    return response.data;
+  },
+
   getCurrencyByCode: async (code: string): Promise<Currency> => {
     const response = await api.get<Currency>(`${API_ENDPOINTS.CURRENCIES}/${code}`);
     return response.data;